@@ -0,0 +1,146 @@
+package terrails.xnetgases.benchmark;
+
+import mcjty.rftoolsbase.api.xnet.channels.IChannelSettings;
+import mcjty.rftoolsbase.api.xnet.channels.IConnectorSettings;
+import mcjty.rftoolsbase.api.xnet.channels.IControllerContext;
+import mcjty.rftoolsbase.api.xnet.keys.ConsumerId;
+import mcjty.rftoolsbase.api.xnet.keys.SidedConsumer;
+import mekanism.api.chemical.gas.GasStack;
+import mekanism.api.chemical.slurry.SlurryStack;
+import net.minecraft.nbt.CompoundNBT;
+import net.minecraft.util.Direction;
+import net.minecraft.util.math.BlockPos;
+import net.minecraftforge.common.capabilities.ICapabilityProvider;
+import terrails.xnetgases.gas.GasChannelSettings;
+import terrails.xnetgases.gas.GasConnectorSettings;
+import terrails.xnetgases.helper.ChannelEnvironment;
+import terrails.xnetgases.helper.ChemicalAdapter;
+import terrails.xnetgases.helper.ChemicalChannelSettings;
+import terrails.xnetgases.helper.ChemicalConnectorSettings;
+import terrails.xnetgases.logic.XGLogicChannelSettings;
+import terrails.xnetgases.logic.XGLogicConnectorSettings;
+import terrails.xnetgases.logic.XGSensor;
+import terrails.xnetgases.slurry.SlurryChannelSettings;
+import terrails.xnetgases.slurry.SlurryConnectorSettings;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Channels wired to a {@link FakeControllerContext} and a {@link FakeEnvironment}.
+ * Connectors are laid out in rows of 32 and face up into their tank.
+ */
+public final class ChannelFixtures {
+
+    public static final long CAPACITY = 64_000;
+    public static final int RATE = 1000;
+
+    private ChannelFixtures() {
+    }
+
+    // Full tanks hold the given chemical, the others start empty
+    @FunctionalInterface
+    public interface TankFactory {
+        FakeChemicalTank<?, ?> create(FakeChemicalTank.Behaviour behaviour, int chemical, boolean full);
+    }
+
+    @Nonnull
+    public static TankFactory gasTanks() {
+        return (behaviour, chemical, full) -> new FakeGasTank(behaviour, CAPACITY, full ? Chemicals.gas(chemical, CAPACITY) : GasStack.EMPTY);
+    }
+
+    @Nonnull
+    public static TankFactory slurryTanks() {
+        return (behaviour, chemical, full) -> new FakeSlurryTank(behaviour, CAPACITY, full ? Chemicals.slurry(chemical, CAPACITY) : SlurryStack.EMPTY);
+    }
+
+    @Nullable
+    public static FakeChemicalTank<?, ?> getTank(@Nonnull FakeEnvironment environment, int index) {
+        return (FakeChemicalTank<?, ?>) environment.getProvider(connectorPos(index).offset(Direction.UP).toLong());
+    }
+
+    @Nonnull
+    public static BlockPos connectorPos(int index) {
+        return new BlockPos(index % 32, 64, index / 32);
+    }
+
+    /**
+     * Every extractorRatio-th connector extracts one of the synthetic chemicals, the others insert with
+     * priorities 0 to 2. Connectors operate every 10 ticks.
+     */
+    @Nonnull
+    public static IChannelSettings chemicalChannel(@Nonnull ChemicalAdapter<?, ?, ?> adapter, @Nonnull ChemicalChannelSettings.ChannelMode mode, int connectors, int extractorRatio,
+                                                   @Nonnull TankFactory tanks, @Nonnull FakeChemicalTank.Behaviour extractorTanks, @Nonnull FakeChemicalTank.Behaviour consumerTanks,
+                                                   @Nonnull FakeControllerContext context, @Nonnull FakeEnvironment environment) {
+        IChannelSettings channel = adapter == ChemicalAdapter.GAS ? new GasChannelSettings() {
+            @Nonnull
+            @Override
+            protected ChannelEnvironment getEnvironment(@Nonnull IControllerContext context) {
+                return environment;
+            }
+        } : new SlurryChannelSettings() {
+            @Nonnull
+            @Override
+            protected ChannelEnvironment getEnvironment(@Nonnull IControllerContext context) {
+                return environment;
+            }
+        };
+        CompoundNBT channelTag = new CompoundNBT();
+        channelTag.putByte("mode", (byte) mode.ordinal());
+        channel.readFromNBT(channelTag);
+
+        for (int i = 0; i < connectors; i++) {
+            boolean extractor = i % extractorRatio == 0;
+            ChemicalConnectorSettings<?, ?, ?> settings = adapter == ChemicalAdapter.GAS ? new GasConnectorSettings(Direction.UP) : new SlurryConnectorSettings(Direction.UP);
+            CompoundNBT tag = new CompoundNBT();
+            tag.putByte(adapter.getName() + "Mode", (byte) (extractor ? ChemicalConnectorSettings.ConnectorMode.EXT : ChemicalConnectorSettings.ConnectorMode.INS).ordinal());
+            tag.putInt("rate", RATE);
+            tag.putInt("priority", i % 3);
+            tag.putInt("speed", 1);
+            settings.readFromNBT(tag);
+
+            addConnector(i, settings, tanks.create(extractor ? extractorTanks : consumerTanks, i / extractorRatio, extractor), context, environment);
+        }
+        return channel;
+    }
+
+    /**
+     * Logic connectors with four sensors each, even connectors sense gas and odd ones slurry.
+     * Every sensor compares against a different amount so some of them match.
+     */
+    @Nonnull
+    public static IChannelSettings logicChannel(int connectors, @Nonnull FakeControllerContext context, @Nonnull FakeEnvironment environment) {
+        IChannelSettings channel = new XGLogicChannelSettings() {
+            @Nonnull
+            @Override
+            protected ChannelEnvironment getEnvironment(@Nonnull IControllerContext context) {
+                return environment;
+            }
+        };
+
+        for (int i = 0; i < connectors; i++) {
+            boolean gas = i % 2 == 0;
+            XGLogicConnectorSettings settings = new XGLogicConnectorSettings(Direction.UP);
+            CompoundNBT tag = new CompoundNBT();
+            tag.putInt("speed", 1);
+            for (int j = 0; j < XGLogicConnectorSettings.SENSORS; j++) {
+                String prefix = "sensor" + j + "_";
+                tag.putByte(prefix + "mode", (byte) (gas ? XGSensor.SensorMode.GAS : XGSensor.SensorMode.SLURRY).ordinal());
+                tag.putByte(prefix + "operator", (byte) ((i + j) % XGSensor.Operator.values().length));
+                tag.putInt(prefix + "amount", (int) (CAPACITY / 4 * j));
+                tag.putByte(prefix + "color", (byte) (j + 1));
+            }
+            settings.readFromNBT(tag);
+
+            TankFactory tanks = gas ? gasTanks() : slurryTanks();
+            addConnector(i, settings, tanks.create(FakeChemicalTank.Behaviour.TANK, i, true), context, environment);
+        }
+        return channel;
+    }
+
+    private static void addConnector(int index, @Nonnull IConnectorSettings settings, @Nonnull ICapabilityProvider tank, @Nonnull FakeControllerContext context, @Nonnull FakeEnvironment environment) {
+        BlockPos pos = connectorPos(index);
+        context.addConnector(new SidedConsumer(new ConsumerId(index + 1), Direction.UP), pos, settings);
+        environment.put(pos.offset(Direction.UP).toLong(), tank);
+    }
+}
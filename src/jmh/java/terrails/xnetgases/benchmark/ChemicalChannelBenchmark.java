@@ -0,0 +1,70 @@
+package terrails.xnetgases.benchmark;
+
+import mcjty.rftoolsbase.api.xnet.channels.IChannelSettings;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import terrails.xnetgases.helper.ChemicalAdapter;
+import terrails.xnetgases.helper.ChemicalChannelSettings;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of a single gas or slurry channel tick. Extractors pull from tanks that never run dry and
+ * consumers void everything, so every operation tick moves the same amount. Ten ticks are run per
+ * invocation, one of them operates every connector.
+ * Allocations per tick are shown with {@code ./gradlew jmh -PjmhArgs="-prof gc ChemicalChannelBenchmark"},
+ * what is left comes from the stacks the handlers return.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChemicalChannelBenchmark {
+
+    private static final int TICKS = 10;
+
+    @Param({"10", "100", "1000"})
+    public int connectors;
+
+    @Param({"DISTRIBUTE", "PRIORITY", "PROPORTIONAL"})
+    public ChemicalChannelSettings.ChannelMode mode;
+
+    @Param({"gas", "slurry"})
+    public String chemical;
+
+    private IChannelSettings channel;
+    private FakeControllerContext context;
+    private FakeEnvironment environment;
+
+    @Setup
+    public void setup() {
+        Chemicals.bootstrap();
+        context = new FakeControllerContext();
+        environment = new FakeEnvironment();
+        boolean gas = chemical.equals("gas");
+        channel = ChannelFixtures.chemicalChannel(gas ? ChemicalAdapter.GAS : ChemicalAdapter.SLURRY, mode, connectors, 4,
+                gas ? ChannelFixtures.gasTanks() : ChannelFixtures.slurryTanks(),
+                FakeChemicalTank.Behaviour.SOURCE, FakeChemicalTank.Behaviour.SINK, context, environment);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TICKS)
+    public void tick() {
+        for (int i = 0; i < TICKS; i++) {
+            channel.tick(0, context);
+            environment.endTick();
+        }
+    }
+}
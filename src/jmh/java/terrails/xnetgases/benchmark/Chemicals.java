@@ -0,0 +1,88 @@
+package terrails.xnetgases.benchmark;
+
+import mekanism.api.MekanismAPI;
+import mekanism.api.chemical.gas.Gas;
+import mekanism.api.chemical.gas.GasBuilder;
+import mekanism.api.chemical.gas.GasStack;
+import mekanism.api.chemical.slurry.Slurry;
+import mekanism.api.chemical.slurry.SlurryBuilder;
+import mekanism.api.chemical.slurry.SlurryStack;
+import net.minecraft.util.ResourceLocation;
+import net.minecraft.util.registry.Bootstrap;
+import net.minecraftforge.registries.IForgeRegistry;
+import net.minecraftforge.registries.RegistryBuilder;
+
+import javax.annotation.Nonnull;
+import java.io.PrintStream;
+
+/**
+ * Synthetic gases and slurries. Mekanism refuses to create stacks of unregistered chemicals,
+ * so the registries are created the same way Mekanism does on startup before any stack exists.
+ * Nothing runs the game startup here, so the vanilla registries are bootstrapped first, connector
+ * settings hold an ItemStack and ItemStack.EMPTY needs the item registry.
+ */
+public final class Chemicals {
+
+    public static final int COUNT = 4;
+
+    private static Gas[] gases;
+    private static Slurry[] slurries;
+
+    private Chemicals() {
+    }
+
+    public static synchronized void bootstrap() {
+        if (gases != null) {
+            return;
+        }
+
+        // The bootstrap sends System.out and System.err to the game log, the results are printed to the console
+        PrintStream out = System.out;
+        PrintStream err = System.err;
+        Bootstrap.register();
+        System.setOut(out);
+        System.setErr(err);
+
+        IForgeRegistry<Gas> gasRegistry = new RegistryBuilder<Gas>()
+                .setName(new ResourceLocation(MekanismAPI.MEKANISM_MODID, "gas"))
+                .setType(Gas.class)
+                .setDefaultKey(new ResourceLocation(MekanismAPI.MEKANISM_MODID, "empty_gas"))
+                .create();
+        IForgeRegistry<Slurry> slurryRegistry = new RegistryBuilder<Slurry>()
+                .setName(new ResourceLocation(MekanismAPI.MEKANISM_MODID, "slurry"))
+                .setType(Slurry.class)
+                .setDefaultKey(new ResourceLocation(MekanismAPI.MEKANISM_MODID, "empty_slurry"))
+                .create();
+        gasRegistry.register(MekanismAPI.EMPTY_GAS);
+        slurryRegistry.register(MekanismAPI.EMPTY_SLURRY);
+
+        gases = new Gas[COUNT];
+        slurries = new Slurry[COUNT];
+        for (int i = 0; i < COUNT; i++) {
+            gases[i] = new Gas(GasBuilder.builder().color(0x111111 * (i + 1))).setRegistryName(new ResourceLocation("xnetgases", "benchmark_gas_" + i));
+            gasRegistry.register(gases[i]);
+            slurries[i] = new Slurry(SlurryBuilder.clean().color(0x111111 * (i + 1))).setRegistryName(new ResourceLocation("xnetgases", "benchmark_slurry_" + i));
+            slurryRegistry.register(slurries[i]);
+        }
+    }
+
+    @Nonnull
+    public static Gas gas(int index) {
+        return gases[index % COUNT];
+    }
+
+    @Nonnull
+    public static Slurry slurry(int index) {
+        return slurries[index % COUNT];
+    }
+
+    @Nonnull
+    public static GasStack gas(int index, long amount) {
+        return new GasStack(gas(index), amount);
+    }
+
+    @Nonnull
+    public static SlurryStack slurry(int index, long amount) {
+        return new SlurryStack(slurry(index), amount);
+    }
+}
@@ -0,0 +1,138 @@
+package terrails.xnetgases.benchmark;
+
+import mekanism.api.Action;
+import mekanism.api.chemical.Chemical;
+import mekanism.api.chemical.ChemicalStack;
+import mekanism.api.chemical.ISidedChemicalHandler;
+import net.minecraft.util.Direction;
+import net.minecraftforge.common.capabilities.Capability;
+import net.minecraftforge.common.capabilities.ICapabilityProvider;
+import net.minecraftforge.common.util.LazyOptional;
+import terrails.xnetgases.helper.ChemicalUtils;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Single tank block standing in for a tile entity. It offers no capabilities, the adapters
+ * fall back to the handler the provider implements itself, same as for Mekanism tiles without one.
+ */
+public abstract class FakeChemicalTank<CHEMICAL extends Chemical<CHEMICAL>, STACK extends ChemicalStack<CHEMICAL>> implements ISidedChemicalHandler<CHEMICAL, STACK>, ICapabilityProvider {
+
+    public enum Behaviour {
+        // Behaves like a regular tank
+        TANK,
+        // Never runs dry, e.g. a creative tank
+        SOURCE,
+        // Voids everything inserted into it
+        SINK
+    }
+
+    private final Behaviour behaviour;
+    private final long capacity;
+    // Chemical the tank was created with, empty if it was created empty
+    private final STACK template;
+    private STACK stored;
+
+    protected FakeChemicalTank(@Nonnull Behaviour behaviour, long capacity, @Nonnull STACK stored) {
+        this.behaviour = behaviour;
+        this.capacity = capacity;
+        this.template = stored.isEmpty() ? stored : ChemicalUtils.copyOf(stored, 1);
+        this.stored = stored;
+    }
+
+    public long getStored() {
+        return stored.getAmount();
+    }
+
+    // Fills the tank with the chemical it was created with, like a machine producing into it
+    public void produce(long amount) {
+        if (template.isEmpty() || amount <= 0 || (!stored.isEmpty() && !stored.isTypeEqual(template))) {
+            return;
+        }
+        long filled = Math.min(capacity, stored.getAmount() + amount);
+        if (stored.isEmpty()) {
+            stored = ChemicalUtils.copyOf(template, filled);
+        } else stored.setAmount(filled);
+    }
+
+    // Drains the tank like a machine using its contents
+    public void consume(long amount) {
+        if (stored.isEmpty() || amount <= 0) {
+            return;
+        }
+        if (amount >= stored.getAmount()) {
+            stored = getEmptyStack();
+        } else stored.shrink(amount);
+    }
+
+    @Override
+    public int getTanks(@Nullable Direction side) {
+        return 1;
+    }
+
+    @Nonnull
+    @Override
+    public STACK getChemicalInTank(int tank, @Nullable Direction side) {
+        return stored;
+    }
+
+    @Override
+    public void setChemicalInTank(int tank, @Nonnull STACK stack, @Nullable Direction side) {
+        this.stored = stack;
+    }
+
+    @Override
+    public long getTankCapacity(int tank, @Nullable Direction side) {
+        return capacity;
+    }
+
+    @Override
+    public boolean isValid(int tank, @Nonnull STACK stack, @Nullable Direction side) {
+        return true;
+    }
+
+    @Nonnull
+    @Override
+    public STACK insertChemical(int tank, @Nonnull STACK stack, @Nullable Direction side, @Nonnull Action action) {
+        if (stack.isEmpty() || (!stored.isEmpty() && !stored.isTypeEqual(stack))) {
+            return stack;
+        }
+
+        long space = behaviour == Behaviour.SINK ? capacity : capacity - stored.getAmount();
+        long accepted = Math.min(space, stack.getAmount());
+        if (accepted <= 0) {
+            return stack;
+        }
+
+        if (action.execute() && behaviour != Behaviour.SINK) {
+            if (stored.isEmpty()) {
+                stored = ChemicalUtils.copyOf(stack, accepted);
+            } else stored.grow(accepted);
+        }
+        return accepted == stack.getAmount() ? getEmptyStack() : ChemicalUtils.copyOf(stack, stack.getAmount() - accepted);
+    }
+
+    @Nonnull
+    @Override
+    public STACK extractChemical(int tank, long amount, @Nullable Direction side, @Nonnull Action action) {
+        if (stored.isEmpty() || amount <= 0) {
+            return getEmptyStack();
+        }
+
+        long extracted = Math.min(amount, stored.getAmount());
+        STACK stack = ChemicalUtils.copyOf(stored, extracted);
+        if (action.execute() && behaviour != Behaviour.SOURCE) {
+            if (extracted == stored.getAmount()) {
+                stored = getEmptyStack();
+            } else stored.shrink(extracted);
+        }
+        return stack;
+    }
+
+    @Nonnull
+    @Override
+    public <T> LazyOptional<T> getCapability(@Nonnull Capability<T> cap, @Nullable Direction side) {
+        return LazyOptional.empty();
+    }
+}
@@ -0,0 +1,79 @@
+package terrails.xnetgases.benchmark;
+
+import mcjty.rftoolsbase.api.xnet.channels.IConnectorSettings;
+import mcjty.rftoolsbase.api.xnet.channels.IControllerContext;
+import mcjty.rftoolsbase.api.xnet.keys.ConsumerId;
+import mcjty.rftoolsbase.api.xnet.keys.SidedConsumer;
+import net.minecraft.item.ItemStack;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Controller with a single channel and unlimited RF. There is no world, channels get their blocks from a {@link FakeEnvironment}.
+ */
+public class FakeControllerContext implements IControllerContext {
+
+    private final Map<SidedConsumer, IConnectorSettings> connectors = new LinkedHashMap<>();
+    private final Map<ConsumerId, BlockPos> positions = new HashMap<>();
+    private int colors = 0;
+
+    public void addConnector(@Nonnull SidedConsumer consumer, @Nonnull BlockPos pos, @Nonnull IConnectorSettings settings) {
+        connectors.put(consumer, settings);
+        positions.put(consumer.getConsumerId(), pos);
+    }
+
+    public void setColors(int colors) {
+        this.colors = colors;
+    }
+
+    @Override
+    public World getControllerWorld() {
+        return null;
+    }
+
+    @Override
+    public BlockPos getControllerPos() {
+        return BlockPos.ZERO;
+    }
+
+    @Nullable
+    @Override
+    public BlockPos findConsumerPosition(@Nonnull ConsumerId consumerId) {
+        return positions.get(consumerId);
+    }
+
+    @Nonnull
+    @Override
+    public Map<SidedConsumer, IConnectorSettings> getConnectors(int channel) {
+        return connectors;
+    }
+
+    @Nonnull
+    @Override
+    public Map<SidedConsumer, IConnectorSettings> getRoutedConnectors(int channel) {
+        return Collections.emptyMap();
+    }
+
+    @Override
+    public boolean checkAndConsumeRF(int rft) {
+        return true;
+    }
+
+    @Override
+    public boolean matchColor(int colorMask) {
+        return (colors & colorMask) == colorMask;
+    }
+
+    @Override
+    public Predicate<ItemStack> getIndexedFilter(int index) {
+        return stack -> true;
+    }
+}
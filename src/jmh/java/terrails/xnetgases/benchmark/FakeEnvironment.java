@@ -0,0 +1,148 @@
+package terrails.xnetgases.benchmark;
+
+import mcjty.rftoolsbase.api.xnet.helper.AbstractConnectorSettings;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraftforge.common.capabilities.ICapabilityProvider;
+import terrails.xnetgases.helper.ChannelEnvironment;
+import terrails.xnetgases.helper.ChunkTracker;
+import terrails.xnetgases.helper.TankSnapshots;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Block lookups backed by sorted arrays, so looking up a position allocates nothing.
+ * The arrays are built on the first lookup after blocks were added.
+ * Every chunk is loaded unless it was unloaded explicitly, redstone never disables a connector.
+ */
+public class FakeEnvironment implements ChannelEnvironment {
+
+    private final Map<Long, ICapabilityProvider> blocks = new TreeMap<>();
+    @Nullable private long[] positions;
+    @Nullable private ICapabilityProvider[] providers;
+    private final Set<Long> unloadedChunks = new HashSet<>();
+    private final Map<Long, ChunkTracker.TrackedChunk> chunks = new HashMap<>();
+    private final TankSnapshots snapshots = new TankSnapshots();
+
+    private int maxIdleBackoff = 0;
+    private int maxOperationsPerTick = 0;
+    private long maxNanosPerTick = 0;
+    private boolean planReplay = false;
+    private boolean changeTracking = false;
+
+    public void put(long pos, @Nonnull ICapabilityProvider provider) {
+        blocks.put(pos, provider);
+        positions = null;
+        providers = null;
+    }
+
+    public void unloadChunk(int chunkX, int chunkZ) {
+        unloadedChunks.add(ChunkPos.asLong(chunkX, chunkZ));
+        getTrackedChunk(ChunkPos.asLong(chunkX, chunkZ)).setLoaded(false);
+    }
+
+    public void loadChunk(int chunkX, int chunkZ) {
+        unloadedChunks.remove(ChunkPos.asLong(chunkX, chunkZ));
+        getTrackedChunk(ChunkPos.asLong(chunkX, chunkZ)).setLoaded(true);
+    }
+
+    // Called after every channel tick, as the server does at the end of its tick
+    public void endTick() {
+        snapshots.clear();
+    }
+
+    public void setMaxIdleBackoff(int maxIdleBackoff) {
+        this.maxIdleBackoff = maxIdleBackoff;
+    }
+
+    public void setMaxOperationsPerTick(int maxOperationsPerTick) {
+        this.maxOperationsPerTick = maxOperationsPerTick;
+    }
+
+    public void setMaxNanosPerTick(long maxNanosPerTick) {
+        this.maxNanosPerTick = maxNanosPerTick;
+    }
+
+    public void setPlanReplay(boolean planReplay) {
+        this.planReplay = planReplay;
+    }
+
+    public void setChangeTracking(boolean changeTracking) {
+        this.changeTracking = changeTracking;
+    }
+
+    @Override
+    public boolean isLoaded(long pos) {
+        return unloadedChunks.isEmpty() || !unloadedChunks.contains(ChunkPos.asLong(BlockPos.unpackX(pos) >> 4, BlockPos.unpackZ(pos) >> 4));
+    }
+
+    @Nonnull
+    @Override
+    public ChunkTracker.TrackedChunk getChunk(long pos) {
+        return getTrackedChunk(ChunkPos.asLong(BlockPos.unpackX(pos) >> 4, BlockPos.unpackZ(pos) >> 4));
+    }
+
+    @Nonnull
+    private ChunkTracker.TrackedChunk getTrackedChunk(long chunkPos) {
+        return chunks.computeIfAbsent(chunkPos, pos -> new ChunkTracker.TrackedChunk(!unloadedChunks.contains(pos)));
+    }
+
+    @Override
+    public boolean isRedstoneBlocked(@Nonnull AbstractConnectorSettings settings, long connectorPos) {
+        return false;
+    }
+
+    @Nullable
+    @Override
+    public ICapabilityProvider getProvider(long pos) {
+        if (positions == null || providers == null) {
+            positions = blocks.keySet().stream().mapToLong(Long::longValue).toArray();
+            providers = blocks.values().toArray(new ICapabilityProvider[0]);
+        }
+        int index = Arrays.binarySearch(positions, pos);
+        return index < 0 ? null : providers[index];
+    }
+
+    @Nonnull
+    @Override
+    public TankSnapshots getSnapshots() {
+        return snapshots;
+    }
+
+    @Override
+    public int getOperationCost() {
+        return 0;
+    }
+
+    @Override
+    public int getMaxIdleBackoff() {
+        return maxIdleBackoff;
+    }
+
+    @Override
+    public int getMaxOperationsPerTick() {
+        return maxOperationsPerTick;
+    }
+
+    @Override
+    public long getMaxNanosPerTick() {
+        return maxNanosPerTick;
+    }
+
+    @Override
+    public boolean isPlanReplayEnabled() {
+        return planReplay;
+    }
+
+    @Override
+    public boolean isChangeTrackingEnabled() {
+        return changeTracking;
+    }
+}
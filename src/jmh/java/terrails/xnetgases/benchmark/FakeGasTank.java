@@ -0,0 +1,14 @@
+package terrails.xnetgases.benchmark;
+
+import mekanism.api.chemical.gas.Gas;
+import mekanism.api.chemical.gas.GasStack;
+import mekanism.api.chemical.gas.IGasHandler.ISidedGasHandler;
+
+import javax.annotation.Nonnull;
+
+public class FakeGasTank extends FakeChemicalTank<Gas, GasStack> implements ISidedGasHandler {
+
+    public FakeGasTank(@Nonnull Behaviour behaviour, long capacity, @Nonnull GasStack stored) {
+        super(behaviour, capacity, stored);
+    }
+}
@@ -0,0 +1,14 @@
+package terrails.xnetgases.benchmark;
+
+import mekanism.api.chemical.slurry.ISlurryHandler.ISidedSlurryHandler;
+import mekanism.api.chemical.slurry.Slurry;
+import mekanism.api.chemical.slurry.SlurryStack;
+
+import javax.annotation.Nonnull;
+
+public class FakeSlurryTank extends FakeChemicalTank<Slurry, SlurryStack> implements ISidedSlurryHandler {
+
+    public FakeSlurryTank(@Nonnull Behaviour behaviour, long capacity, @Nonnull SlurryStack stored) {
+        super(behaviour, capacity, stored);
+    }
+}
@@ -0,0 +1,58 @@
+package terrails.xnetgases.benchmark;
+
+import mcjty.rftoolsbase.api.xnet.channels.IChannelSettings;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of a single logic channel tick with four sensors per connector.
+ * Five ticks are run per invocation, one of them evaluates every connector.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LogicChannelBenchmark {
+
+    private static final int TICKS = 5;
+
+    @Param({"10", "100", "1000"})
+    public int connectors;
+
+    private IChannelSettings channel;
+    private FakeControllerContext context;
+    private FakeEnvironment environment;
+
+    @Setup
+    public void setup() {
+        Chemicals.bootstrap();
+        context = new FakeControllerContext();
+        environment = new FakeEnvironment();
+        channel = ChannelFixtures.logicChannel(connectors, context, environment);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TICKS)
+    public void tick(Blackhole blackhole) {
+        for (int i = 0; i < TICKS; i++) {
+            channel.tick(0, context);
+            environment.endTick();
+            blackhole.consume(channel.getColors());
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package terrails.xnetgases.simulator;
+
+import mcjty.rftoolsbase.api.xnet.channels.IChannelSettings;
+import mcjty.rftoolsbase.api.xnet.channels.IConnectorSettings;
+import mekanism.api.chemical.Chemical;
+import terrails.xnetgases.benchmark.ChannelFixtures;
+import terrails.xnetgases.benchmark.Chemicals;
+import terrails.xnetgases.benchmark.FakeChemicalTank;
+import terrails.xnetgases.benchmark.FakeControllerContext;
+import terrails.xnetgases.benchmark.FakeEnvironment;
+import terrails.xnetgases.helper.ChemicalAdapter;
+import terrails.xnetgases.helper.ChemicalChannelSettings;
+import terrails.xnetgases.helper.ChemicalConnectorSettings;
+import terrails.xnetgases.helper.TransferMetrics;
+import terrails.xnetgases.logic.XGLogicChannelSettings;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Runs a single channel for a number of ticks without a game and prints how it performed.
+ * Producers fill the extractor tanks and machines drain the consumer tanks at random rates,
+ * chunks get unloaded and loaded again and the connectors of the channel are changed now and then.
+ * Everything random comes from the seed, so runs with the same arguments move the same amounts.
+ * The run fails if the consumers did not receive exactly what was extracted, the fake tanks never refuse
+ * an insertion they accepted in the simulation.
+ *
+ * Arguments are key=value pairs, e.g. type=gas mode=DISTRIBUTE connectors=1000 ticks=20000 replay=true seed=1
+ */
+public class ChannelSimulator {
+
+    private final String type;
+    private final ChemicalChannelSettings.ChannelMode mode;
+    private final int connectors;
+    private final int extractorRatio;
+    private final int ticks;
+    private final long production;
+    private final long consumption;
+    private final double chunkEventChance;
+    private final int churnInterval;
+    private final boolean planReplay;
+    private final boolean changeTracking;
+    private final Random random;
+
+    private ChannelSimulator(Map<String, String> options) {
+        this.type = options.getOrDefault("type", "gas");
+        this.mode = ChemicalChannelSettings.ChannelMode.valueOf(options.getOrDefault("mode", "DISTRIBUTE"));
+        this.connectors = Integer.parseInt(options.getOrDefault("connectors", "100"));
+        this.extractorRatio = Integer.parseInt(options.getOrDefault("extractorRatio", "4"));
+        this.ticks = Integer.parseInt(options.getOrDefault("ticks", "12000"));
+        // Per tank and tick, on average half of it
+        this.production = Long.parseLong(options.getOrDefault("production", "200"));
+        this.consumption = Long.parseLong(options.getOrDefault("consumption", String.valueOf(2 * production / Math.max(1, extractorRatio - 1))));
+        this.chunkEventChance = Double.parseDouble(options.getOrDefault("chunkEvents", "0.001"));
+        this.churnInterval = Integer.parseInt(options.getOrDefault("churn", "0"));
+        this.planReplay = Boolean.parseBoolean(options.getOrDefault("replay", "false"));
+        this.changeTracking = Boolean.parseBoolean(options.getOrDefault("tracking", "false"));
+        this.random = new Random(Long.parseLong(options.getOrDefault("seed", "1")));
+    }
+
+    public static void main(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int split = arg.indexOf('=');
+            if (split <= 0) {
+                throw new IllegalArgumentException("Expected key=value but got '" + arg + "'");
+            }
+            options.put(arg.substring(0, split), arg.substring(split + 1));
+        }
+
+        Chemicals.bootstrap();
+        new ChannelSimulator(options).run();
+    }
+
+    private void run() {
+        FakeControllerContext context = new FakeControllerContext();
+        FakeEnvironment environment = new FakeEnvironment();
+        environment.setPlanReplay(planReplay);
+        environment.setChangeTracking(changeTracking);
+        boolean logic = type.equals("logic");
+        IChannelSettings channel;
+        if (logic) {
+            channel = ChannelFixtures.logicChannel(connectors, context, environment);
+        } else {
+            boolean gas = type.equals("gas");
+            channel = ChannelFixtures.chemicalChannel(gas ? ChemicalAdapter.GAS : ChemicalAdapter.SLURRY, mode, connectors, extractorRatio,
+                    gas ? ChannelFixtures.gasTanks() : ChannelFixtures.slurryTanks(),
+                    FakeChemicalTank.Behaviour.TANK, FakeChemicalTank.Behaviour.TANK, context, environment);
+        }
+
+        List<FakeChemicalTank<?, ?>> producers = new ArrayList<>();
+        List<FakeChemicalTank<?, ?>> machines = new ArrayList<>();
+        for (int i = 0; i < connectors; i++) {
+            FakeChemicalTank<?, ?> tank = ChannelFixtures.getTank(environment, i);
+            // Logic channels only read their tanks, so half of them fill up and half drain
+            if (logic ? i % 4 < 2 : i % extractorRatio == 0) {
+                producers.add(tank);
+            } else machines.add(tank);
+        }
+
+        int chunks = (connectors + 31) / 32 / 16 + 1;
+        List<Integer> unloaded = new ArrayList<>();
+        int colorChanges = 0;
+        int colors = channel.getColors();
+        long[] costs = new long[ticks];
+        for (int tick = 0; tick < ticks; tick++) {
+            for (FakeChemicalTank<?, ?> tank : producers) {
+                tank.produce(random.nextInt((int) production + 1));
+            }
+            for (FakeChemicalTank<?, ?> tank : machines) {
+                tank.consume(random.nextInt((int) consumption + 1));
+            }
+
+            if (random.nextDouble() < chunkEventChance) {
+                if (!unloaded.isEmpty() && random.nextBoolean()) {
+                    int chunk = unloaded.remove(random.nextInt(unloaded.size()));
+                    environment.loadChunk(chunk % 2, chunk / 2);
+                } else {
+                    int chunk = random.nextInt(2 * chunks);
+                    if (!unloaded.contains(chunk)) {
+                        unloaded.add(chunk);
+                        environment.unloadChunk(chunk % 2, chunk / 2);
+                    }
+                }
+            }
+            if (churnInterval > 0 && tick % churnInterval == 0) {
+                channel.cleanCache();
+            }
+
+            long start = System.nanoTime();
+            channel.tick(0, context);
+            environment.endTick();
+            costs[tick] = System.nanoTime() - start;
+
+            if (logic ? ((XGLogicChannelSettings) channel).hasColorsChanged() : channel.getColors() != colors) {
+                colors = channel.getColors();
+                colorChanges++;
+            }
+        }
+
+        System.out.printf("%s channel, %s, %d connectors, %d ticks%n", type, logic ? "4 sensors each" : mode.name(), connectors, ticks);
+        System.out.printf("tick cost: mean %.1f us, p50 %.1f us, p99 %.1f us, max %.1f us%n",
+                SimulationStats.mean(costs) / 1000, SimulationStats.percentile(costs, 0.5) / 1000.0,
+                SimulationStats.percentile(costs, 0.99) / 1000.0, SimulationStats.percentile(costs, 1) / 1000.0);
+
+        if (logic) {
+            TransferMetrics metrics = ((XGLogicChannelSettings) channel).getMetrics();
+            System.out.printf("sensor tests %d, matched %d, color changes %d%n", metrics.getOperations(), metrics.getSuccesses(), colorChanges);
+            return;
+        }
+
+        TransferMetrics metrics = ((ChemicalChannelSettings<?, ?, ?>) channel).getMetrics();
+        System.out.printf("operations %d, succeeded %d, simulations %d, executions %d%n",
+                metrics.getOperations(), metrics.getSuccesses(), metrics.getSimulations(), metrics.getExecutions());
+        for (Map.Entry<Chemical<?>, Long> entry : metrics.getMoved().entrySet()) {
+            System.out.printf("throughput %s: %d total, %.1f per tick%n", entry.getKey().getRegistryName(), entry.getValue(), entry.getValue() / (double) ticks);
+        }
+
+        // Consumers of the same priority should get the same share in DISTRIBUTE and PROPORTIONAL mode
+        Map<Integer, List<Long>> received = new HashMap<>();
+        long inserted = 0;
+        for (IConnectorSettings settings : context.getConnectors(0).values()) {
+            ChemicalConnectorSettings<?, ?, ?> connector = (ChemicalConnectorSettings<?, ?, ?>) settings;
+            if (connector.getConnectorMode() == ChemicalConnectorSettings.ConnectorMode.INS) {
+                long total = connector.getMetrics().getMoved().values().stream().mapToLong(Long::longValue).sum();
+                received.computeIfAbsent(connector.getPriority(), priority -> new ArrayList<>()).add(total);
+                inserted += total;
+            }
+        }
+        received.forEach((priority, amounts) -> System.out.printf("priority %d: %d consumers, fairness %.3f%n",
+                priority, amounts.size(), SimulationStats.fairness(amounts.stream().mapToLong(Long::longValue).toArray())));
+
+        long extracted = metrics.getMoved().values().stream().mapToLong(Long::longValue).sum();
+        if (extracted != inserted) {
+            System.out.printf("FAILED: extracted %d but consumers received %d%n", extracted, inserted);
+            System.exit(1);
+        }
+    }
+}
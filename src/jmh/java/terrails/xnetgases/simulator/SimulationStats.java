@@ -0,0 +1,42 @@
+package terrails.xnetgases.simulator;
+
+import java.util.Arrays;
+
+final class SimulationStats {
+
+    private SimulationStats() {
+    }
+
+    static double mean(long[] values) {
+        if (values.length == 0) {
+            return 0;
+        }
+        double sum = 0;
+        for (long value : values) {
+            sum += value;
+        }
+        return sum / values.length;
+    }
+
+    // Nearest-rank percentile, fraction between 0 and 1
+    static long percentile(long[] values, double fraction) {
+        if (values.length == 0) {
+            return 0;
+        }
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        int rank = (int) Math.ceil(fraction * sorted.length);
+        return sorted[Math.max(0, Math.min(sorted.length - 1, rank - 1))];
+    }
+
+    // Jain's fairness index, 1 when everyone got the same and 1/n when a single one got everything
+    static double fairness(long[] values) {
+        double sum = 0;
+        double squares = 0;
+        for (long value : values) {
+            sum += value;
+            squares += (double) value * value;
+        }
+        return squares == 0 ? 1 : (sum * sum) / (values.length * squares);
+    }
+}
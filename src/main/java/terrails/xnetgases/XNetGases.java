@@ -4,6 +4,7 @@ import com.electronwill.nightconfig.core.file.CommentedFileConfig;
 import com.electronwill.nightconfig.core.io.WritingMode;
 import mcjty.xnet.XNet;
 import net.minecraftforge.common.ForgeConfigSpec;
+import net.minecraftforge.common.MinecraftForge;
 import net.minecraftforge.eventbus.api.IEventBus;
 import net.minecraftforge.fml.ModLoadingContext;
 import net.minecraftforge.fml.common.Mod;
@@ -15,6 +16,8 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import terrails.xnetgases.gas.GasChannelType;
 import terrails.xnetgases.gas.GasConnectable;
+import terrails.xnetgases.helper.ChunkTracker;
+import terrails.xnetgases.helper.TankSnapshots;
 import terrails.xnetgases.logic.XGLogicChannelType;
 import terrails.xnetgases.slurry.SlurryChannelType;
 import terrails.xnetgases.slurry.SlurryConnectable;
@@ -33,12 +36,23 @@ public class XNetGases {
     public static ForgeConfigSpec.IntValue maxSlurryRateNormal;
     public static ForgeConfigSpec.IntValue maxSlurryRateAdvanced;
 
+    public static ForgeConfigSpec.IntValue maxIdleBackoff;
+    public static ForgeConfigSpec.IntValue maxOperationsPerTick;
+    public static ForgeConfigSpec.LongValue maxNanosPerTick;
+    public static ForgeConfigSpec.BooleanValue replayTransferPlans;
+    public static ForgeConfigSpec.BooleanValue trackTankChanges;
+
     private static final ForgeConfigSpec CONFIG_SPEC;
 
     public XNetGases() {
         ModLoadingContext.get().registerConfig(ModConfig.Type.COMMON, CONFIG_SPEC, "xnetgases.toml");
         final IEventBus bus = FMLJavaModLoadingContext.get().getModEventBus();
         bus.addListener(this::setup);
+
+        MinecraftForge.EVENT_BUS.addListener(ChunkTracker::onChunkLoad);
+        MinecraftForge.EVENT_BUS.addListener(ChunkTracker::onChunkUnload);
+        MinecraftForge.EVENT_BUS.addListener(ChunkTracker::onWorldUnload);
+        MinecraftForge.EVENT_BUS.addListener(TankSnapshots::onServerTick);
     }
 
     private void setup(final FMLCommonSetupEvent event) {
@@ -71,6 +85,33 @@ public class XNetGases {
                 .comment("Maximum slurry per operation that an advanced connector can input or output")
                 .defineInRange("maxSlurryRateAdvanced", 5000, 1, 1000000000);
 
+        maxIdleBackoff = builder
+                .comment("Maximum number of operations an extractor skips after moving nothing, doubled every time it stays idle",
+                        "It goes back to full speed after a successful transfer or when the connectors of the channel change",
+                        "An extractor that found no consumer for what it offered also goes back to full speed when a consumer of the channel changes",
+                        "0 disables the backoff")
+                .defineInRange("maxIdleBackoff", 0, 0, 1024);
+
+        maxOperationsPerTick = builder
+                .comment("Maximum number of extractor operations a gas or slurry channel runs in one tick, 0 for no limit",
+                        "Operations over the limit are continued in the following ticks")
+                .defineInRange("maxOperationsPerTick", 0, 0, Integer.MAX_VALUE);
+        maxNanosPerTick = builder
+                .comment("Maximum time in nanoseconds a gas or slurry channel spends on extractor operations in one tick, 0 for no limit",
+                        "Operations over the limit are continued in the following ticks")
+                .defineInRange("maxNanosPerTick", 0L, 0L, Long.MAX_VALUE);
+
+        replayTransferPlans = builder
+                .comment("Gas and slurry extractors on priority channels repeat their last transfer while the same consumers still accept the same amounts",
+                        "and no other consumer with at least the priority of the lowest one in it would accept anything",
+                        "This skips the simulations of lower priority consumers on channels that move the same amounts every operation")
+                .define("replayTransferPlans", false);
+        trackTankChanges = builder
+                .comment("Remember the tank contents so that extractors with nothing to offer and logic sensors skip tanks that did not change",
+                        "Costs a copy of the tank contents per tracked connector, compared by chemical and amount on every operation",
+                        "Tanks that change what they accept without their contents changing are not noticed until their contents do")
+                .define("trackTankChanges", false);
+
         CONFIG_SPEC = builder.pop().build();
     }
 
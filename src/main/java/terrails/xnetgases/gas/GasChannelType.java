@@ -6,6 +6,7 @@ import mcjty.rftoolsbase.api.xnet.channels.IConnectorSettings;
 import net.minecraft.util.Direction;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.World;
+import terrails.xnetgases.helper.ChemicalAdapter;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -24,7 +25,7 @@ public class GasChannelType implements IChannelType {
 
     @Override
     public boolean supportsBlock(@Nonnull World world, @Nonnull BlockPos pos, @Nullable Direction direction) {
-        return GasUtils.getGasHandlerFor(world.getTileEntity(pos), direction).isPresent();
+        return ChemicalAdapter.GAS.getHandlerFor(world.getTileEntity(pos), direction).isPresent();
     }
 
     @Nonnull
@@ -6,6 +6,7 @@ import net.minecraft.tileentity.TileEntity;
 import net.minecraft.util.Direction;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.IBlockReader;
+import terrails.xnetgases.helper.ChemicalAdapter;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -15,7 +16,7 @@ public class GasConnectable implements IConnectable {
 
     @Override
     public ConnectResult canConnect(@Nonnull IBlockReader reader, @Nonnull BlockPos connectorPos, @Nonnull BlockPos blockPos, @Nullable TileEntity tile, @Nonnull Direction direction) {
-        Optional<IGasHandler> optional = GasUtils.getGasHandlerFor(tile, direction);
+        Optional<IGasHandler> optional = ChemicalAdapter.GAS.getHandlerFor(tile, direction);
         if (optional.isPresent()) {
             return ConnectResult.YES;
         } else return ConnectResult.DEFAULT;
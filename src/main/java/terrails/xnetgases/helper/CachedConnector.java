@@ -0,0 +1,228 @@
+package terrails.xnetgases.helper;
+
+import mcjty.rftoolsbase.api.xnet.keys.SidedConsumer;
+import mekanism.api.chemical.Chemical;
+import mekanism.api.chemical.ChemicalStack;
+import mekanism.api.chemical.IChemicalHandler;
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.util.math.BlockPos;
+import net.minecraftforge.common.capabilities.ICapabilityProvider;
+import net.minecraftforge.common.util.LazyOptional;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * A connector of a channel together with the handler of the block it is connected to.
+ * The handler is kept until its capability gets invalidated or the tile entity is removed.
+ * Positions are packed with {@link BlockPos#toLong()} and stay valid until the channel cache is cleaned,
+ * connectors with a position share a {@link ChunkGroup} with the others targeting the same chunk.
+ */
+public class CachedConnector<CHEMICAL extends Chemical<CHEMICAL>, STACK extends ChemicalStack<CHEMICAL>, HANDLER extends IChemicalHandler<CHEMICAL, STACK>> {
+
+    private final SidedConsumer consumer;
+    private final ChemicalConnectorSettings<CHEMICAL, STACK, HANDLER> settings;
+
+    private final boolean positioned;
+    private final long connectorPos;
+    private final long targetPos;
+    private int index;
+    @Nullable private ChunkGroup chunk;
+
+    @Nullable private ICapabilityProvider provider;
+    @Nullable private LazyOptional<HANDLER> capability;
+    @Nullable private HANDLER handler;
+
+    // Channel tick the redstone state was read in, it is read at most once per tick
+    private long redstoneTick = -1;
+    private boolean redstoneBlocked;
+
+    // Last plan of an extractor that placed everything it was offered, kept while plan replay is enabled
+    @Nullable private InsertionPlan<CHEMICAL, STACK, HANDLER> lastPlan;
+    @Nullable private CHEMICAL lastChemical;
+    private long lastOffered;
+
+    // Contents of an extractor tank the last time it had nothing to offer
+    @Nullable private TankSnapshot idleContents;
+
+    // Operations left to sit out and the length of the last backoff, both reset when the cache is rebuilt.
+    // A backoff because no consumer accepted anything also ends once the consumer changes counted by the channel differ from when it started
+    private int idleSkips;
+    private int idleBackoff;
+    private boolean waitingForConsumers;
+    private long idleChanges;
+
+    // Contents of a consumer tank when the channel last looked at it
+    @Nullable private TankSnapshot seenContents;
+
+    public CachedConnector(@Nonnull SidedConsumer consumer, @Nonnull ChemicalConnectorSettings<CHEMICAL, STACK, HANDLER> settings, @Nullable BlockPos connectorPos) {
+        this.consumer = consumer;
+        this.settings = settings;
+        this.positioned = connectorPos != null;
+        this.connectorPos = connectorPos == null ? 0 : connectorPos.toLong();
+        this.targetPos = connectorPos == null ? 0 : BlockPos.offset(this.connectorPos, consumer.getSide());
+    }
+
+    @Nonnull
+    public SidedConsumer getConsumer() {
+        return consumer;
+    }
+
+    @Nonnull
+    public ChemicalConnectorSettings<CHEMICAL, STACK, HANDLER> getSettings() {
+        return settings;
+    }
+
+    // Position in the cached list of the channel, set once the list is sorted
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    // False if the controller could not find the connector when the cache was built
+    public boolean hasPosition() {
+        return positioned;
+    }
+
+    // Position of the block the connector is attached to
+    public long getTargetPos() {
+        return targetPos;
+    }
+
+    public void setChunk(@Nonnull ChunkGroup chunk) {
+        this.chunk = chunk;
+    }
+
+    // True if the chunk of the target position is loaded, connectors without a position never are
+    public boolean isLoaded(@Nonnull ChannelEnvironment environment, long tick) {
+        return this.chunk != null && this.chunk.isLoaded(environment, tick);
+    }
+
+    @Nullable
+    public HANDLER getHandler(@Nonnull ChannelEnvironment environment) {
+        // Checked on every resolve instead of adding a listener, capabilities live as long as their tile
+        // and would keep a listener of every cache that was ever built for it
+        if (this.handler != null && this.capability != null && this.capability.isPresent()
+                && !(this.provider instanceof TileEntity && ((TileEntity) this.provider).isRemoved())) {
+            return this.handler;
+        }
+        invalidate();
+
+        ICapabilityProvider provider = environment.getProvider(targetPos);
+        if (provider == null) {
+            return null;
+        }
+
+        LazyOptional<HANDLER> capability = settings.getAdapter().getCapabilityFor(provider, settings.getFacing());
+        if (!capability.isPresent()) {
+            return null;
+        }
+
+        this.provider = provider;
+        this.capability = capability;
+        this.handler = capability.orElseThrow(() -> new IllegalArgumentException("Handler is 'null' even though it said that its present"));
+        return this.handler;
+    }
+
+    public boolean isRedstoneBlocked(@Nonnull ChannelEnvironment environment, long tick) {
+        if (this.redstoneTick != tick) {
+            this.redstoneTick = tick;
+            this.redstoneBlocked = environment.isRedstoneBlocked(settings, connectorPos);
+        }
+        return this.redstoneBlocked;
+    }
+
+    // Plan that placed the whole offered stack last time, null if there is none to replay
+    @Nullable
+    public InsertionPlan<CHEMICAL, STACK, HANDLER> getLastPlan(@Nonnull STACK offered) {
+        if (this.lastPlan != null && !this.lastPlan.isEmpty() && offered.getType() == this.lastChemical && offered.getAmount() == this.lastOffered) {
+            return this.lastPlan;
+        } else return null;
+    }
+
+    public void rememberPlan(@Nonnull STACK offered, @Nonnull InsertionPlan<CHEMICAL, STACK, HANDLER> plan) {
+        if (this.lastPlan == null) {
+            this.lastPlan = new InsertionPlan<>();
+        }
+        this.lastPlan.copyFrom(plan);
+        this.lastChemical = offered.getType();
+        this.lastOffered = offered.getAmount();
+    }
+
+    public void forgetPlan() {
+        if (this.lastPlan != null) {
+            this.lastPlan.clear();
+        }
+    }
+
+    // True if the tank looks the same as when the extractor last had nothing to offer
+    public boolean isUnchangedSinceIdle(@Nonnull TankSnapshot contents) {
+        return this.idleContents != null && this.idleContents.hasSameContents(contents);
+    }
+
+    public void setIdleContents(@Nonnull TankSnapshot contents) {
+        if (this.idleContents == null) {
+            this.idleContents = new TankSnapshot();
+        }
+        this.idleContents.copyFrom(contents);
+    }
+
+    // Called on every operation of an extractor, true if it is still backing off
+    public boolean skipIdle(long consumerChanges) {
+        if (this.idleSkips > 0 && this.waitingForConsumers && this.idleChanges != consumerChanges) {
+            markActive();
+        }
+        if (this.idleSkips > 0) {
+            this.idleSkips--;
+            return true;
+        } else return false;
+    }
+
+    public boolean isWaitingForConsumers() {
+        return this.idleSkips > 0 && this.waitingForConsumers;
+    }
+
+    // The tank had nothing to offer, consumers changing does not help with that
+    public void markIdle(int maxBackoff) {
+        backOff(maxBackoff);
+        this.waitingForConsumers = false;
+    }
+
+    // No consumer accepted what the tank had to offer
+    public void markUnplaced(int maxBackoff, long consumerChanges) {
+        backOff(maxBackoff);
+        this.waitingForConsumers = true;
+        this.idleChanges = consumerChanges;
+    }
+
+    // Doubles the number of operations to skip, up to maxBackoff. Zero disables the backoff
+    private void backOff(int maxBackoff) {
+        this.idleBackoff = Math.min(Math.max(this.idleBackoff * 2, 1), maxBackoff);
+        this.idleSkips = this.idleBackoff;
+    }
+
+    public void markActive() {
+        this.idleSkips = 0;
+        this.idleBackoff = 0;
+    }
+
+    // Remembers the contents of a consumer tank, true if they are not the ones seen last time
+    public boolean hasContentsChanged(@Nonnull TankSnapshot contents) {
+        if (this.seenContents == null) {
+            this.seenContents = new TankSnapshot();
+        } else if (this.seenContents.hasSameContents(contents)) {
+            return false;
+        }
+        this.seenContents.copyFrom(contents);
+        return true;
+    }
+
+    public void invalidate() {
+        this.provider = null;
+        this.capability = null;
+        this.handler = null;
+    }
+}
@@ -0,0 +1,44 @@
+package terrails.xnetgases.helper;
+
+import mcjty.rftoolsbase.api.xnet.helper.AbstractConnectorSettings;
+import net.minecraftforge.common.capabilities.ICapabilityProvider;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Everything the channels read from the world and the configs while ticking.
+ * Positions are packed with {@link net.minecraft.util.math.BlockPos#toLong()}.
+ * On a server this is a {@link WorldEnvironment}, benchmarks replace it to run without a game.
+ */
+public interface ChannelEnvironment {
+
+    boolean isLoaded(long pos);
+
+    // Loaded state of the chunk holding the position, the same instance for every position in the chunk
+    @Nonnull
+    ChunkTracker.TrackedChunk getChunk(long pos);
+
+    // True if the redstone settings of the connector at this position disable it
+    boolean isRedstoneBlocked(@Nonnull AbstractConnectorSettings settings, long connectorPos);
+
+    @Nullable
+    ICapabilityProvider getProvider(long pos);
+
+    // RF needed by the controller for each operation
+    int getOperationCost();
+
+    int getMaxIdleBackoff();
+
+    int getMaxOperationsPerTick();
+
+    long getMaxNanosPerTick();
+
+    boolean isPlanReplayEnabled();
+
+    boolean isChangeTrackingEnabled();
+
+    // Tank contents read in the current tick, shared with the other channels in the world
+    @Nonnull
+    TankSnapshots getSnapshots();
+}
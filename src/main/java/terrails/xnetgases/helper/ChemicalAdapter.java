@@ -0,0 +1,248 @@
+package terrails.xnetgases.helper;
+
+import mekanism.api.Action;
+import mekanism.api.chemical.Chemical;
+import mekanism.api.chemical.ChemicalStack;
+import mekanism.api.chemical.IChemicalHandler;
+import mekanism.api.chemical.ISidedChemicalHandler;
+import mekanism.api.chemical.gas.Gas;
+import mekanism.api.chemical.gas.GasStack;
+import mekanism.api.chemical.gas.IGasHandler;
+import mekanism.api.chemical.gas.IGasHandler.ISidedGasHandler;
+import mekanism.api.chemical.slurry.ISlurryHandler;
+import mekanism.api.chemical.slurry.ISlurryHandler.ISidedSlurryHandler;
+import mekanism.api.chemical.slurry.Slurry;
+import mekanism.api.chemical.slurry.SlurryStack;
+import mekanism.common.capabilities.Capabilities;
+import net.minecraft.item.ItemStack;
+import net.minecraft.util.Direction;
+import net.minecraftforge.common.ForgeConfigSpec;
+import net.minecraftforge.common.capabilities.Capability;
+import net.minecraftforge.common.capabilities.ICapabilityProvider;
+import net.minecraftforge.common.util.LazyOptional;
+import terrails.xnetgases.XNetGases;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Everything that differs between the chemical types handled by this mod.
+ * The handler calls of the transfer loop are implemented once per type, so the JIT profiles
+ * the call sites of gas handlers and slurry handlers separately.
+ */
+public abstract class ChemicalAdapter<CHEMICAL extends Chemical<CHEMICAL>, STACK extends ChemicalStack<CHEMICAL>, HANDLER extends IChemicalHandler<CHEMICAL, STACK>> {
+
+    public static final ChemicalAdapter<Gas, GasStack, IGasHandler> GAS = new GasAdapter();
+
+    public static final ChemicalAdapter<Slurry, SlurryStack, ISlurryHandler> SLURRY = new SlurryAdapter();
+
+    private final String name;
+    private final String displayName;
+    private final Class<HANDLER> handlerClass;
+    private final Class<? extends HANDLER> sidedHandlerClass;
+    // Capabilities are injected after this class is loaded
+    private final Supplier<Capability<HANDLER>> capability;
+    private final ForgeConfigSpec.IntValue maxRateNormal;
+    private final ForgeConfigSpec.IntValue maxRateAdvanced;
+
+    private ChemicalAdapter(String name, String displayName, Class<HANDLER> handlerClass, Class<? extends HANDLER> sidedHandlerClass,
+                            Supplier<Capability<HANDLER>> capability, ForgeConfigSpec.IntValue maxRateNormal, ForgeConfigSpec.IntValue maxRateAdvanced) {
+        this.name = name;
+        this.displayName = displayName;
+        this.handlerClass = handlerClass;
+        this.sidedHandlerClass = sidedHandlerClass;
+        this.capability = capability;
+        this.maxRateNormal = maxRateNormal;
+        this.maxRateAdvanced = maxRateAdvanced;
+    }
+
+    @Nonnull
+    public abstract STACK insertChemical(@Nonnull HANDLER handler, @Nonnull STACK stack, @Nullable Direction side, @Nonnull Action action);
+
+    @Nonnull
+    public abstract STACK extractChemical(@Nonnull HANDLER handler, long amount, @Nullable Direction side, @Nonnull Action action);
+
+    public abstract int getTanks(@Nonnull HANDLER handler, @Nullable Direction side);
+
+    @Nonnull
+    public abstract STACK getChemicalInTank(@Nonnull HANDLER handler, int tank, @Nullable Direction side);
+
+    public abstract long getTankCapacity(@Nonnull HANDLER handler, int tank, @Nullable Direction side);
+
+    public String getName() {
+        return name;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    public int getMaxRateNormal() {
+        return maxRateNormal.get();
+    }
+
+    public int getMaxRateAdvanced() {
+        return maxRateAdvanced.get();
+    }
+
+    @Nonnull
+    public Optional<HANDLER> getHandlerFor(@Nullable ICapabilityProvider provider, @Nullable Direction direction) {
+        return Optional.ofNullable(getHandler(provider, direction));
+    }
+
+    // Same handler as getCapabilityFor resolves to, without wrapping tanks that are their own handler
+    @Nullable
+    public HANDLER getHandler(@Nullable ICapabilityProvider provider, @Nullable Direction direction) {
+        if (provider == null) {
+            return null;
+        }
+        LazyOptional<HANDLER> optional = getCapability(provider, direction);
+        if (optional.isPresent()) {
+            return optional.orElse(null);
+        } else return getOwnHandler(provider, direction);
+    }
+
+    @Nonnull
+    public LazyOptional<HANDLER> getCapabilityFor(@Nullable ICapabilityProvider provider, @Nullable Direction direction) {
+        if (provider == null) {
+            return LazyOptional.empty();
+        }
+        LazyOptional<HANDLER> optional = getCapability(provider, direction);
+        if (optional.isPresent()) {
+            return optional;
+        }
+        HANDLER handler = getOwnHandler(provider, direction);
+        if (handler != null) {
+            return LazyOptional.of(() -> handler);
+        } else return LazyOptional.empty();
+    }
+
+    @Nonnull
+    private LazyOptional<HANDLER> getCapability(@Nonnull ICapabilityProvider provider, @Nullable Direction direction) {
+        Capability<HANDLER> capability = this.capability.get();
+        if (capability != null) {
+            return provider.getCapability(capability, direction);
+        } else return LazyOptional.empty();
+    }
+
+    // Fallback for tanks that implement the handler themselves instead of exposing the capability
+    @Nullable
+    private HANDLER getOwnHandler(@Nonnull ICapabilityProvider provider, @Nullable Direction direction) {
+        if (direction != null && sidedHandlerClass.isInstance(provider) && ((ISidedChemicalHandler<?, ?>) provider).getTanks(direction) >= 1) {
+            return handlerClass.cast(provider);
+        } else if (!sidedHandlerClass.isInstance(provider) && handlerClass.isInstance(provider) && handlerClass.cast(provider).getTanks() >= 1) {
+            return handlerClass.cast(provider);
+        } else return null;
+    }
+
+    // The chemical held by a filter item, e.g. a gas tank in a ghost slot
+    @Nullable
+    public STACK getStackIn(@Nonnull ItemStack stack) {
+        Capability<HANDLER> capability = this.capability.get();
+        if (!stack.isEmpty() && capability != null) {
+            LazyOptional<HANDLER> optional = stack.getCapability(capability);
+            if (optional.isPresent()) {
+                HANDLER handler = optional.orElseThrow(() -> new IllegalArgumentException(handlerClass.getSimpleName() + " Capability doesn't exist!"));
+                if (handler.getTanks() > 0) {
+                    return handler.getChemicalInTank(0);
+                }
+            }
+        }
+        return null;
+    }
+
+    // The bodies of both adapters are the same on purpose, each copy gets its own type profile
+    private static final class GasAdapter extends ChemicalAdapter<Gas, GasStack, IGasHandler> {
+
+        private GasAdapter() {
+            super("gas", "Gas", IGasHandler.class, ISidedGasHandler.class, () -> Capabilities.GAS_HANDLER_CAPABILITY,
+                    XNetGases.maxGasRateNormal, XNetGases.maxGasRateAdvanced);
+        }
+
+        @Nonnull
+        @Override
+        public GasStack insertChemical(@Nonnull IGasHandler handler, @Nonnull GasStack stack, @Nullable Direction side, @Nonnull Action action) {
+            if (handler instanceof ISidedGasHandler) {
+                return ((ISidedGasHandler) handler).insertChemical(stack, side, action);
+            } else return handler.insertChemical(stack, action);
+        }
+
+        @Nonnull
+        @Override
+        public GasStack extractChemical(@Nonnull IGasHandler handler, long amount, @Nullable Direction side, @Nonnull Action action) {
+            if (handler instanceof ISidedGasHandler) {
+                return ((ISidedGasHandler) handler).extractChemical(amount, side, action);
+            } else return handler.extractChemical(amount, action);
+        }
+
+        @Override
+        public int getTanks(@Nonnull IGasHandler handler, @Nullable Direction side) {
+            if (handler instanceof ISidedGasHandler) {
+                return ((ISidedGasHandler) handler).getTanks(side);
+            } else return handler.getTanks();
+        }
+
+        @Nonnull
+        @Override
+        public GasStack getChemicalInTank(@Nonnull IGasHandler handler, int tank, @Nullable Direction side) {
+            if (handler instanceof ISidedGasHandler) {
+                return ((ISidedGasHandler) handler).getChemicalInTank(tank, side);
+            } else return handler.getChemicalInTank(tank);
+        }
+
+        @Override
+        public long getTankCapacity(@Nonnull IGasHandler handler, int tank, @Nullable Direction side) {
+            if (handler instanceof ISidedGasHandler) {
+                return ((ISidedGasHandler) handler).getTankCapacity(tank, side);
+            } else return handler.getTankCapacity(tank);
+        }
+    }
+
+    private static final class SlurryAdapter extends ChemicalAdapter<Slurry, SlurryStack, ISlurryHandler> {
+
+        private SlurryAdapter() {
+            super("slurry", "Slurry", ISlurryHandler.class, ISidedSlurryHandler.class, () -> Capabilities.SLURRY_HANDLER_CAPABILITY,
+                    XNetGases.maxSlurryRateNormal, XNetGases.maxSlurryRateAdvanced);
+        }
+
+        @Nonnull
+        @Override
+        public SlurryStack insertChemical(@Nonnull ISlurryHandler handler, @Nonnull SlurryStack stack, @Nullable Direction side, @Nonnull Action action) {
+            if (handler instanceof ISidedSlurryHandler) {
+                return ((ISidedSlurryHandler) handler).insertChemical(stack, side, action);
+            } else return handler.insertChemical(stack, action);
+        }
+
+        @Nonnull
+        @Override
+        public SlurryStack extractChemical(@Nonnull ISlurryHandler handler, long amount, @Nullable Direction side, @Nonnull Action action) {
+            if (handler instanceof ISidedSlurryHandler) {
+                return ((ISidedSlurryHandler) handler).extractChemical(amount, side, action);
+            } else return handler.extractChemical(amount, action);
+        }
+
+        @Override
+        public int getTanks(@Nonnull ISlurryHandler handler, @Nullable Direction side) {
+            if (handler instanceof ISidedSlurryHandler) {
+                return ((ISidedSlurryHandler) handler).getTanks(side);
+            } else return handler.getTanks();
+        }
+
+        @Nonnull
+        @Override
+        public SlurryStack getChemicalInTank(@Nonnull ISlurryHandler handler, int tank, @Nullable Direction side) {
+            if (handler instanceof ISidedSlurryHandler) {
+                return ((ISidedSlurryHandler) handler).getChemicalInTank(tank, side);
+            } else return handler.getChemicalInTank(tank);
+        }
+
+        @Override
+        public long getTankCapacity(@Nonnull ISlurryHandler handler, int tank, @Nullable Direction side) {
+            if (handler instanceof ISidedSlurryHandler) {
+                return ((ISidedSlurryHandler) handler).getTankCapacity(tank, side);
+            } else return handler.getTankCapacity(tank);
+        }
+    }
+}
@@ -0,0 +1,700 @@
+package terrails.xnetgases.helper;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import mcjty.rftoolsbase.api.xnet.channels.IChannelSettings;
+import mcjty.rftoolsbase.api.xnet.channels.IConnectorSettings;
+import mcjty.rftoolsbase.api.xnet.channels.IControllerContext;
+import mcjty.rftoolsbase.api.xnet.gui.IEditorGui;
+import mcjty.rftoolsbase.api.xnet.gui.IndicatorIcon;
+import mcjty.rftoolsbase.api.xnet.helper.DefaultChannelSettings;
+import mcjty.rftoolsbase.api.xnet.keys.SidedConsumer;
+import mcjty.xnet.XNet;
+import mekanism.api.Action;
+import mekanism.api.chemical.Chemical;
+import mekanism.api.chemical.ChemicalStack;
+import mekanism.api.chemical.IChemicalHandler;
+import net.minecraft.nbt.CompoundNBT;
+import net.minecraft.util.ResourceLocation;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.*;
+
+/**
+ * Transfer logic shared by all chemical channels. Subclasses only pick the {@link ChemicalAdapter}.
+ * Every call into an {@link IChemicalHandler} goes through the adapter, which has its own implementation
+ * per chemical type, so gas and slurry handlers do not share the call sites of the transfer loop.
+ */
+public abstract class ChemicalChannelSettings<CHEMICAL extends Chemical<CHEMICAL>, STACK extends ChemicalStack<CHEMICAL>, HANDLER extends IChemicalHandler<CHEMICAL, STACK>> extends DefaultChannelSettings implements IChannelSettings {
+
+    public static final ResourceLocation iconGuiElements = new ResourceLocation(XNet.MODID, "textures/gui/guielements.png");
+
+    public static final String TAG_MODE = "mode";
+
+    public enum ChannelMode {
+        PRIORITY,
+        DISTRIBUTE,
+        // Each batch is split between all consumers by their free space, the emptiest ones first
+        PROPORTIONAL
+    }
+
+    private final ChemicalAdapter<CHEMICAL, STACK, HANDLER> adapter;
+
+    private ChannelMode channelMode = ChannelMode.DISTRIBUTE;
+    private int delay;
+    private int roundRobinOffset;
+
+    // Counts the ticks of this channel, connectors keep their redstone state for the tick it was read in
+    private long tickCount;
+
+    // Passes started so far and the next due extractor of the current one, -1 if the pass is done
+    private long pass;
+    private int nextExtractor = -1;
+
+    // Counts insertions and consumer tanks that changed, extractors that back off resume once it moves
+    private long consumerChanges;
+
+    private List<CachedConnector<CHEMICAL, STACK, HANDLER>> extractors;
+    private List<CachedConnector<CHEMICAL, STACK, HANDLER>> consumers;
+    private OperationWheel extractorWheel;
+
+    // Indices into consumers, sorted the same way. Filtered consumers are listed under their chemical together with all unfiltered ones
+    private Map<CHEMICAL, int[]> consumerIndex;
+    private int[] unfilteredConsumers;
+
+    // Connectors enabled by the controller colors, updated at the start of every tick that runs operations
+    private ColorIndex extractorColors;
+    private ColorIndex consumerColors;
+
+    // Highest priority per chemical among the connectors holding it, only used in PRIORITY mode.
+    // Rebuilt on the first lookup after a transfer, so every operation sees the tanks as they are
+    private final PriorityTiers extractorTiers = new PriorityTiers();
+    private final PriorityTiers consumerTiers = new PriorityTiers();
+    private boolean tiersOutdated;
+
+    private final InsertionPlan<CHEMICAL, STACK, HANDLER> plan = new InsertionPlan<>();
+    private final FillHeap<CHEMICAL, STACK, HANDLER> fillHeap = new FillHeap<>();
+    private final Map<CHEMICAL, STACK> probes = new HashMap<>();
+    private final TransferMetrics metrics = TransferMetrics.register(this);
+    private final WorldEnvironment world = new WorldEnvironment(this::checkRedstone);
+
+    protected ChemicalChannelSettings(@Nonnull ChemicalAdapter<CHEMICAL, STACK, HANDLER> adapter) {
+        this.adapter = adapter;
+        this.delay = 0;
+        this.roundRobinOffset = 0;
+    }
+
+    @Nonnull
+    public TransferMetrics getMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public JsonObject writeToJson() {
+        JsonObject object = new JsonObject();
+        object.add("mode", new JsonPrimitive(channelMode.name()));
+        return object;
+    }
+
+    @Override
+    public void readFromJson(JsonObject data) {
+        channelMode = ChemicalUtils.getChannelModeFrom(data.get("mode").getAsString());
+    }
+
+    @Override
+    public void readFromNBT(CompoundNBT nbt) {
+        channelMode = ChannelMode.values()[nbt.getByte("mode")];
+        this.delay = nbt.getInt("delay");
+        this.roundRobinOffset = nbt.getInt("offset");
+    }
+
+    @Override
+    public void writeToNBT(CompoundNBT nbt) {
+        nbt.putByte("mode", (byte) channelMode.ordinal());
+        nbt.putInt("delay", this.delay);
+        nbt.putInt("offset", this.roundRobinOffset);
+    }
+
+    @Override
+    public void tick(int channel, IControllerContext context) {
+        --this.delay;
+        if (this.delay <= 0) {
+            this.delay = 200 * 6;
+        }
+
+        this.metrics.addTick();
+        this.tickCount++;
+
+        // A pass that ran out of budget is finished first, the next one starts late instead of being skipped
+        if (this.delay % 10 == 0 && this.nextExtractor < 0) {
+            updateCache(channel, context, getEnvironment(context));
+            this.extractorWheel.advance();
+            this.pass = this.extractorWheel.getPass();
+            this.nextExtractor = 0;
+            checkConsumers(getEnvironment(context));
+        }
+
+        if (this.nextExtractor >= 0) {
+            long start = System.nanoTime();
+            // Tanks may have changed since the last tick, within a tick only the transfers of this channel change them
+            this.tiersOutdated = true;
+            ChannelEnvironment environment = getEnvironment(context);
+            extractorColors.update(context);
+            consumerColors.update(context);
+            runExtractors(context, environment, start);
+            this.metrics.addNanos(System.nanoTime() - start);
+        }
+    }
+
+    // Where the connectors of this channel are looked up, overridden to run channels without a world
+    @Nonnull
+    protected ChannelEnvironment getEnvironment(@Nonnull IControllerContext context) {
+        return world.withController(context);
+    }
+
+    private void runExtractors(@Nonnull IControllerContext context, @Nonnull ChannelEnvironment environment, long start) {
+        int maxBackoff = environment.getMaxIdleBackoff();
+        int maxOperations = environment.getMaxOperationsPerTick();
+        long maxNanos = environment.getMaxNanosPerTick();
+        int operations = 0;
+        for (int j = this.nextExtractor; j < extractorWheel.getDueCount(); j++) {
+            int i = extractorWheel.getDue(j);
+            CachedConnector<CHEMICAL, STACK, HANDLER> entry = extractors.get(i);
+
+            // At least one operation is done every tick so the pass always finishes
+            long now = System.nanoTime();
+            if (operations > 0 && ((maxOperations > 0 && operations >= maxOperations) || (maxNanos > 0 && now - start >= maxNanos))) {
+                this.nextExtractor = j;
+                return;
+            }
+            operations++;
+
+            boolean proceed = extract(context, environment, i, maxBackoff);
+            entry.getSettings().getMetrics().addNanos(System.nanoTime() - now);
+            if (!proceed) {
+                break;
+            }
+        }
+        this.nextExtractor = -1;
+    }
+
+    // Runs one operation of an extractor, false if the rest of the pass has to be skipped
+    private boolean extract(@Nonnull IControllerContext context, @Nonnull ChannelEnvironment environment, int index, int maxBackoff) {
+        CachedConnector<CHEMICAL, STACK, HANDLER> entry = extractors.get(index);
+        SidedConsumer consumer = entry.getConsumer();
+        ChemicalConnectorSettings<CHEMICAL, STACK, HANDLER> settings = entry.getSettings();
+        if (!entry.hasPosition()) {
+            return true;
+        }
+
+        if (!entry.isLoaded(environment, tickCount)) {
+            entry.invalidate();
+            return true;
+        }
+
+        HANDLER handler = entry.getHandler(environment);
+        if (handler == null) {
+            return true;
+        }
+
+        if (entry.isRedstoneBlocked(environment, tickCount)) {
+            return false;
+        }
+        if (!extractorColors.isEnabled(index)) {
+            return false;
+        }
+        if (entry.skipIdle(consumerChanges)) {
+            return true;
+        }
+
+        // Nothing could be extracted last time and the tank did not change since
+        TankSnapshots snapshots = environment.getSnapshots();
+        TankSnapshot contents = environment.isChangeTrackingEnabled() ? snapshots.get(entry.getTargetPos(), settings.getFacing(), adapter, handler) : null;
+        if (contents != null && entry.isUnchangedSinceIdle(contents)) {
+            return true;
+        }
+
+        TransferMetrics metrics = settings.getMetrics();
+        this.metrics.addOperation();
+        metrics.addOperation();
+
+        CHEMICAL extractMatcher = settings.getMatcherType();
+
+        long toExtract = settings.getRate();
+
+        Integer count = settings.getMinmax();
+        if (count != null) {
+            long amount = snapshots.get(entry.getTargetPos(), settings.getFacing(), adapter, handler).getCount(extractMatcher);
+            long canExtract = amount - count;
+            if (canExtract <= 0) {
+                entry.markIdle(maxBackoff);
+                if (contents != null) {
+                    entry.setIdleContents(contents);
+                }
+                return true;
+            }
+            toExtract = Math.min(toExtract, canExtract);
+        }
+
+        if (channelMode == ChannelMode.PRIORITY) {
+            updatePriorityTiers(environment);
+
+            // Skip current extractor if there is one with the same chemical but has higher priority.
+            if (isOutranked(extractorTiers, snapshots.get(entry.getTargetPos(), consumer.getSide(), adapter, handler), settings)) {
+                return true;
+            }
+        }
+
+        STACK stack = adapter.extractChemical(handler, toExtract, settings.getFacing(), Action.SIMULATE);
+        this.metrics.addSimulation();
+        metrics.addSimulation();
+        if (stack.isEmpty() || (extractMatcher != null && stack.getType() != extractMatcher)) {
+            entry.markIdle(maxBackoff);
+            if (contents != null) {
+                entry.setIdleContents(contents);
+            }
+            return true;
+        }
+
+        // Proportional plans depend on the fill level of every consumer, they are never repeated
+        boolean replay = environment.isPlanReplayEnabled() && channelMode == ChannelMode.PRIORITY;
+        if (!replay || !replayPlan(environment, entry, stack)) {
+            plan.clear();
+            planInsertion(environment, stack);
+        }
+        if (plan.isEmpty()) {
+            entry.markUnplaced(maxBackoff, consumerChanges);
+            return true;
+        }
+
+        if (context.checkAndConsumeRF(environment.getOperationCost())) {
+            long planned = plan.getTotal();
+            STACK extracted = adapter.extractChemical(handler, planned, settings.getFacing(), Action.EXECUTE);
+            snapshots.invalidate(entry.getTargetPos(), adapter);
+            this.tiersOutdated = true;
+            this.metrics.addExecution();
+            metrics.addExecution();
+            if (extracted.isEmpty()) {
+                throw new NullPointerException(handler.getClass().getName() + " misbehaved! handler.extractChemical(" + planned + ", Action.SIMULATE) returned null, even though handler.extractChemical(" + planned + ", Action.EXECUTE) did not");
+            }
+            // Only a plan that took the whole stack and went through unchanged is worth repeating
+            if (executePlan(snapshots, extracted) && replay && planned == stack.getAmount()) {
+                entry.rememberPlan(stack, plan);
+            } else entry.forgetPlan();
+            entry.markActive();
+
+            this.metrics.addTransfer(extracted.getType(), extracted.getAmount());
+            metrics.addTransfer(extracted.getType(), extracted.getAmount());
+        }
+        return true;
+    }
+
+    @Override
+    public void cleanCache() {
+        this.nextExtractor = -1;
+        this.extractors = null;
+        this.consumers = null;
+        this.extractorWheel = null;
+        this.consumerIndex = null;
+        this.unfilteredConsumers = null;
+        this.extractorColors = null;
+        this.consumerColors = null;
+        this.extractorTiers.clear();
+        this.consumerTiers.clear();
+    }
+
+    // Consumers drained since the last pass may accept again what extractors backing off had to offer
+    private void checkConsumers(@Nonnull ChannelEnvironment environment) {
+        boolean waiting = false;
+        for (int i = 0; i < extractors.size() && !waiting; i++) {
+            waiting = extractors.get(i).isWaitingForConsumers();
+        }
+        if (!waiting) {
+            return;
+        }
+
+        for (int i = 0; i < consumers.size(); i++) {
+            CachedConnector<CHEMICAL, STACK, HANDLER> entry = consumers.get(i);
+            if (!entry.isLoaded(environment, tickCount)) {
+                continue;
+            }
+            HANDLER handler = entry.getHandler(environment);
+            if (handler != null && entry.hasContentsChanged(environment.getSnapshots().get(entry.getTargetPos(), entry.getSettings().getFacing(), adapter, handler))) {
+                consumerChanges++;
+            }
+        }
+    }
+
+    // Simulates the insertion into every consumer once and remembers how much each of them accepted
+    private void planInsertion(@Nonnull ChannelEnvironment environment, @Nonnull STACK stack) {
+        TankSnapshots snapshots = environment.getSnapshots();
+        long amount = stack.getAmount();
+        boolean proportional = channelMode == ChannelMode.PROPORTIONAL;
+        if (proportional) {
+            fillHeap.clear();
+        }
+
+        // Only consumers whose filter accepts this chemical, in the same order as the full list
+        int[] candidates = consumerIndex.getOrDefault(stack.getType(), unfilteredConsumers);
+        int start = Arrays.binarySearch(candidates, roundRobinOffset);
+        if (start < 0) {
+            start = -start - 1;
+        }
+
+        for (int j = 0; j < candidates.length; j++) {
+            CachedConnector<CHEMICAL, STACK, HANDLER> entry = consumers.get(candidates[(j + start) % candidates.length]);
+            long accepted = simulateInsertion(environment, entry, stack, amount);
+            if (accepted > 0 && proportional) {
+                // Every consumer is asked for the full batch, it is split once all of them are known
+                CHEMICAL chemical = stack.getType();
+                HANDLER handler = entry.getHandler(environment);
+                TankSnapshot tank = snapshots.get(entry.getTargetPos(), entry.getSettings().getFacing(), adapter, handler);
+                long capacity = tank.getCapacity(chemical);
+                long stored = tank.getCount(chemical);
+                fillHeap.add(entry, handler, accepted, capacity - stored, capacity);
+            } else if (accepted > 0) {
+                plan.add(entry, entry.getHandler(environment), accepted);
+                amount -= accepted;
+                if (amount <= 0) {
+                    return;
+                }
+            }
+        }
+
+        if (proportional && !fillHeap.isEmpty()) {
+            fillHeap.distribute(amount, plan);
+        }
+    }
+
+    // Amount the consumer would accept of the stack, zero if it is disabled, full or outranked
+    private long simulateInsertion(@Nonnull ChannelEnvironment environment, @Nonnull CachedConnector<CHEMICAL, STACK, HANDLER> entry, @Nonnull STACK stack, long amount) {
+        SidedConsumer consumer = entry.getConsumer();
+        ChemicalConnectorSettings<CHEMICAL, STACK, HANDLER> settings = entry.getSettings();
+        if (!entry.hasPosition()) {
+            return 0;
+        }
+        if (!entry.isLoaded(environment, tickCount)) {
+            entry.invalidate();
+            return 0;
+        }
+        if (entry.isRedstoneBlocked(environment, tickCount) || !consumerColors.isEnabled(entry.getIndex())) {
+            return 0;
+        }
+
+        HANDLER handler = entry.getHandler(environment);
+        if (handler == null) {
+            return 0;
+        }
+        TankSnapshots snapshots = environment.getSnapshots();
+        long toInsert = Math.min(settings.getRate(), amount);
+
+        Integer count = settings.getMinmax();
+        if (count != null) {
+            long a = snapshots.get(entry.getTargetPos(), settings.getFacing(), adapter, handler).getCount(settings.getMatcherType());
+            long canInsert = count - a;
+            if (canInsert <= 0) {
+                return 0;
+            }
+            toInsert = Math.min(toInsert, canInsert);
+        }
+
+        if (channelMode == ChannelMode.PRIORITY) {
+            updatePriorityTiers(environment);
+
+            // Skip current consumer if there is one that accepts the same chemical but has higher priority.
+            if (isOutranked(consumerTiers, snapshots.get(entry.getTargetPos(), consumer.getSide(), adapter, handler), settings)) {
+                return 0;
+            }
+        }
+
+        STACK remaining = adapter.insertChemical(handler, probe(stack, toInsert), settings.getFacing(), Action.SIMULATE);
+        this.metrics.addSimulation();
+        settings.getMetrics().addOperation();
+        settings.getMetrics().addSimulation();
+        return toInsert - remaining.getAmount();
+    }
+
+    // Copies the last plan of the extractor if every consumer in it still accepts its full amount
+    // and no consumer left out of it, with at least the priority of the lowest one in it, would take part now
+    private boolean replayPlan(@Nonnull ChannelEnvironment environment, @Nonnull CachedConnector<CHEMICAL, STACK, HANDLER> extractor, @Nonnull STACK stack) {
+        InsertionPlan<CHEMICAL, STACK, HANDLER> last = extractor.getLastPlan(stack);
+        if (last == null) {
+            return false;
+        }
+
+        TankSnapshots snapshots = environment.getSnapshots();
+        for (int i = 0; i < last.size(); i++) {
+            CachedConnector<CHEMICAL, STACK, HANDLER> entry = last.getConsumer(i);
+            ChemicalConnectorSettings<CHEMICAL, STACK, HANDLER> settings = entry.getSettings();
+            long amount = last.getAmount(i);
+
+            if (!entry.isLoaded(environment, tickCount) || entry.isRedstoneBlocked(environment, tickCount) || !consumerColors.isEnabled(entry.getIndex())) {
+                extractor.forgetPlan();
+                return false;
+            }
+
+            HANDLER handler = entry.getHandler(environment);
+            if (handler != last.getHandler(i)) {
+                extractor.forgetPlan();
+                return false;
+            }
+
+            Integer count = settings.getMinmax();
+            if (count != null && count - snapshots.get(entry.getTargetPos(), settings.getFacing(), adapter, handler).getCount(settings.getMatcherType()) < amount) {
+                extractor.forgetPlan();
+                return false;
+            }
+
+            if (channelMode == ChannelMode.PRIORITY) {
+                updatePriorityTiers(environment);
+                if (isOutranked(consumerTiers, snapshots.get(entry.getTargetPos(), entry.getConsumer().getSide(), adapter, handler), settings)) {
+                    extractor.forgetPlan();
+                    return false;
+                }
+            }
+
+            STACK remaining = adapter.insertChemical(handler, probe(stack, amount), settings.getFacing(), Action.SIMULATE);
+            this.metrics.addSimulation();
+            settings.getMetrics().addOperation();
+            settings.getMetrics().addSimulation();
+            if (!remaining.isEmpty()) {
+                extractor.forgetPlan();
+                return false;
+            }
+        }
+
+        if (hasMissedConsumer(environment, last, stack)) {
+            extractor.forgetPlan();
+            return false;
+        }
+
+        plan.copyFrom(last);
+        return true;
+    }
+
+    // Consumers are sorted by priority, full planning would try every one down to the lowest priority in the plan
+    private boolean hasMissedConsumer(@Nonnull ChannelEnvironment environment, @Nonnull InsertionPlan<CHEMICAL, STACK, HANDLER> last, @Nonnull STACK stack) {
+        int lowest = Integer.MAX_VALUE;
+        for (int i = 0; i < last.size(); i++) {
+            lowest = Math.min(lowest, last.getConsumer(i).getSettings().getPriority());
+        }
+
+        int[] candidates = consumerIndex.getOrDefault(stack.getType(), unfilteredConsumers);
+        for (int index : candidates) {
+            CachedConnector<CHEMICAL, STACK, HANDLER> entry = consumers.get(index);
+            if (entry.getSettings().getPriority() < lowest) {
+                break;
+            }
+            if (!last.contains(entry) && simulateInsertion(environment, entry, stack, stack.getAmount()) > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // True if every consumer took the full amount it was planned for
+    private boolean executePlan(@Nonnull TankSnapshots snapshots, @Nonnull STACK stack) {
+        boolean complete = true;
+        long amount = stack.getAmount();
+        for (int i = 0; i < plan.size(); i++) {
+            ChemicalConnectorSettings<CHEMICAL, STACK, HANDLER> settings = plan.getConsumer(i).getSettings();
+
+            // Handlers may keep the stack they are given, so it is never the shared probe
+            STACK copy = ChemicalUtils.copyOf(stack, Math.min(plan.getAmount(i), amount));
+
+            STACK remaining = adapter.insertChemical(plan.getHandler(i), copy, settings.getFacing(), Action.EXECUTE);
+            snapshots.invalidate(plan.getConsumer(i).getTargetPos(), adapter);
+            this.metrics.addExecution();
+            settings.getMetrics().addExecution();
+            if (copy.getAmount() != plan.getAmount(i) || !remaining.isEmpty()) {
+                complete = false;
+            }
+            if (remaining.isEmpty() || copy.getAmount() != remaining.getAmount()) {
+                consumerChanges++;
+                settings.getMetrics().addTransfer(copy.getType(), copy.getAmount() - remaining.getAmount());
+                roundRobinOffset = (roundRobinOffset + 1) % consumers.size();
+                amount -= (copy.getAmount() - remaining.getAmount());
+                if (amount <= 0) {
+                    return complete && i == plan.size() - 1;
+                }
+            }
+        }
+        return complete;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void updateCache(int channel, IControllerContext context, ChannelEnvironment environment) {
+        if (this.extractors == null) {
+            this.extractors = new ArrayList<>();
+            this.consumers = new ArrayList<>();
+
+            Map<SidedConsumer, IConnectorSettings> connectors = context.getConnectors(channel);
+            Iterator<Map.Entry<SidedConsumer, IConnectorSettings>> iterator = connectors.entrySet().iterator();
+
+            while (iterator.hasNext()) {
+                Map.Entry<SidedConsumer, IConnectorSettings> entry = iterator.next();
+                SidedConsumer consumer = entry.getKey();
+                ChemicalConnectorSettings<CHEMICAL, STACK, HANDLER> settings = (ChemicalConnectorSettings<CHEMICAL, STACK, HANDLER>) entry.getValue();
+                if (settings.getConnectorMode() == ChemicalConnectorSettings.ConnectorMode.EXT) {
+                    this.extractors.add(new CachedConnector<>(consumer, settings, context.findConsumerPosition(consumer.getConsumerId())));
+                } else {
+                    this.consumers.add(new CachedConnector<>(consumer, settings, context.findConsumerPosition(consumer.getConsumerId())));
+                }
+            }
+
+            connectors = context.getRoutedConnectors(channel);
+            iterator = connectors.entrySet().iterator();
+
+            while (iterator.hasNext()) {
+                Map.Entry<SidedConsumer, IConnectorSettings> entry = iterator.next();
+                SidedConsumer consumer = entry.getKey();
+                ChemicalConnectorSettings<CHEMICAL, STACK, HANDLER> settings = (ChemicalConnectorSettings<CHEMICAL, STACK, HANDLER>) entry.getValue();
+                if (settings.getConnectorMode() == ChemicalConnectorSettings.ConnectorMode.INS) {
+                    this.consumers.add(new CachedConnector<>(consumer, settings, context.findConsumerPosition(consumer.getConsumerId())));
+                }
+            }
+
+            this.consumers.sort((o1, o2) -> Integer.compare(o2.getSettings().getPriority(), o1.getSettings().getPriority()));
+            indexConsumers();
+            groupByChunk(environment);
+            this.extractorWheel = new OperationWheel(this.extractors.stream().mapToInt(entry -> entry.getSettings().getSpeed()).toArray(), this.pass);
+            this.extractorColors = new ColorIndex(this.extractors);
+            this.consumerColors = new ColorIndex(this.consumers);
+        }
+    }
+
+    // Connectors targeting the same chunk share one loaded check
+    private void groupByChunk(@Nonnull ChannelEnvironment environment) {
+        Map<ChunkTracker.TrackedChunk, ChunkGroup> groups = new IdentityHashMap<>();
+        for (List<CachedConnector<CHEMICAL, STACK, HANDLER>> connectors : Arrays.asList(extractors, consumers)) {
+            for (CachedConnector<CHEMICAL, STACK, HANDLER> entry : connectors) {
+                if (entry.hasPosition()) {
+                    ChunkGroup group = groups.computeIfAbsent(environment.getChunk(entry.getTargetPos()), chunk -> new ChunkGroup(chunk, entry.getTargetPos()));
+                    group.add(entry);
+                    entry.setChunk(group);
+                }
+            }
+        }
+    }
+
+    private void indexConsumers() {
+        List<Integer> unfiltered = new ArrayList<>();
+        Map<CHEMICAL, List<Integer>> filtered = new HashMap<>();
+        for (int i = 0; i < consumers.size(); i++) {
+            consumers.get(i).setIndex(i);
+            CHEMICAL matcher = consumers.get(i).getSettings().getMatcherType();
+            if (matcher == null) {
+                unfiltered.add(i);
+            } else {
+                filtered.computeIfAbsent(matcher, chemical -> new ArrayList<>()).add(i);
+            }
+        }
+
+        this.unfilteredConsumers = unfiltered.stream().mapToInt(Integer::intValue).toArray();
+        this.consumerIndex = new HashMap<>();
+        filtered.forEach((chemical, indices) -> {
+            indices.addAll(unfiltered);
+            this.consumerIndex.put(chemical, indices.stream().mapToInt(Integer::intValue).sorted().toArray());
+        });
+    }
+
+    private void updatePriorityTiers(@Nonnull ChannelEnvironment environment) {
+        if (this.tiersOutdated) {
+            this.tiersOutdated = false;
+            fillPriorityTiers(environment, extractors, extractorTiers);
+            fillPriorityTiers(environment, consumers, consumerTiers);
+        }
+    }
+
+    // Simulated insertions reuse one stack per chemical, the amount is set for every call
+    @Nonnull
+    private STACK probe(@Nonnull STACK stack, long amount) {
+        STACK probe = probes.get(stack.getType());
+        if (probe == null) {
+            probe = ChemicalUtils.copyOf(stack, amount);
+            probes.put(stack.getType(), probe);
+        } else probe.setAmount(amount);
+        return probe;
+    }
+
+    private void fillPriorityTiers(@Nonnull ChannelEnvironment environment, @Nonnull List<CachedConnector<CHEMICAL, STACK, HANDLER>> connectors, @Nonnull PriorityTiers tiers) {
+        tiers.clear();
+        for (int i = 0; i < connectors.size(); i++) {
+            CachedConnector<CHEMICAL, STACK, HANDLER> entry = connectors.get(i);
+            SidedConsumer consumer = entry.getConsumer();
+            ChemicalConnectorSettings<CHEMICAL, STACK, HANDLER> settings = entry.getSettings();
+
+            if (!entry.hasPosition()) {
+                continue;
+            }
+
+            if (!entry.isLoaded(environment, tickCount)) {
+                entry.invalidate();
+                continue;
+            }
+
+            HANDLER handler = entry.getHandler(environment);
+            if (handler != null) {
+                TankSnapshot tank = environment.getSnapshots().get(entry.getTargetPos(), consumer.getSide(), adapter, handler);
+                CHEMICAL matcher = settings.getMatcherType();
+                if (matcher != null && !tank.contains(matcher)) {
+                    continue;
+                }
+
+                int priority = settings.getPriority();
+                for (int j = 0; j < tank.getTanks(); j++) {
+                    tiers.raise(tank.getType(j), priority);
+                }
+            }
+        }
+    }
+
+    // True if a connector with higher priority holds any of the chemicals in this handler.
+    private boolean isOutranked(@Nonnull PriorityTiers tiers, @Nonnull TankSnapshot tank, @Nonnull ChemicalConnectorSettings<CHEMICAL, STACK, HANDLER> settings) {
+        CHEMICAL matcher = settings.getMatcherType();
+        if (matcher != null && !tank.contains(matcher)) {
+            return false;
+        }
+
+        int priority = settings.getPriority();
+        for (int i = 0; i < tank.getTanks(); i++) {
+            if (tiers.isAbove(tank.getType(i), priority)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean isEnabled(String tag) {
+        return true;
+    }
+
+    @Nullable
+    @Override
+    public IndicatorIcon getIndicatorIcon() {
+        return new IndicatorIcon(iconGuiElements, 0, 90, 11, 10);
+    }
+
+    @Nullable
+    @Override
+    public String getIndicator() {
+        return null;
+    }
+
+    @Override
+    public void createGui(IEditorGui gui) {
+        gui.nl().choices(TAG_MODE, adapter.getDisplayName() + " distribution mode", this.channelMode, ChannelMode.values());
+    }
+
+    @Override
+    public void update(Map<String, Object> data) {
+        this.channelMode = ChannelMode.valueOf(((String) data.get(TAG_MODE)).toUpperCase());
+    }
+
+    @Override
+    public int getColors() {
+        return 0;
+    }
+}
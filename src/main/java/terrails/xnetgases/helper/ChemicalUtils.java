@@ -0,0 +1,45 @@
+package terrails.xnetgases.helper;
+
+import mekanism.api.chemical.Chemical;
+import mekanism.api.chemical.ChemicalStack;
+
+import javax.annotation.Nonnull;
+import java.util.HashMap;
+import java.util.Map;
+
+public class ChemicalUtils {
+
+    private static Map<String, ChemicalConnectorSettings.ConnectorMode> connectorModeCache;
+    private static Map<String, ChemicalChannelSettings.ChannelMode> channelModeCache;
+
+    @Nonnull
+    public static ChemicalConnectorSettings.ConnectorMode getConnectorModeFrom(String s) {
+        if (connectorModeCache == null) {
+            connectorModeCache = new HashMap<>();
+            for (ChemicalConnectorSettings.ConnectorMode mode : ChemicalConnectorSettings.ConnectorMode.values()) {
+                connectorModeCache.put(mode.name(), mode);
+            }
+        }
+        return connectorModeCache.get(s);
+    }
+
+    @Nonnull
+    public static ChemicalChannelSettings.ChannelMode getChannelModeFrom(String s) {
+        if (channelModeCache == null) {
+            channelModeCache = new HashMap<>();
+            for (ChemicalChannelSettings.ChannelMode mode : ChemicalChannelSettings.ChannelMode.values()) {
+                channelModeCache.put(mode.name(), mode);
+            }
+        }
+        return channelModeCache.get(s);
+    }
+
+    // ChemicalStack#copy is only typed as ChemicalStack, every implementation returns its own type though
+    @Nonnull
+    @SuppressWarnings("unchecked")
+    public static <CHEMICAL extends Chemical<CHEMICAL>, STACK extends ChemicalStack<CHEMICAL>> STACK copyOf(@Nonnull STACK stack, long amount) {
+        STACK copy = (STACK) stack.copy();
+        copy.setAmount(amount);
+        return copy;
+    }
+}
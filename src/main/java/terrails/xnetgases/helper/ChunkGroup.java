@@ -0,0 +1,57 @@
+package terrails.xnetgases.helper;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Connectors of a channel whose loaded check falls into the same chunk. Built with the channel cache,
+ * the cached handlers of all of them are dropped at once when the chunk got unloaded in the meantime.
+ * The tracked state only rules a chunk out, a chunk it calls loaded is checked with the world once per tick.
+ */
+public class ChunkGroup {
+
+    private final ChunkTracker.TrackedChunk chunk;
+    private final List<CachedConnector<?, ?, ?>> connectors = new ArrayList<>();
+    private final long pos;
+    private int unloads;
+
+    private long checkedTick = -1;
+    private boolean accessible;
+
+    public ChunkGroup(@Nonnull ChunkTracker.TrackedChunk chunk, long pos) {
+        this.chunk = chunk;
+        this.pos = pos;
+        this.unloads = chunk.getUnloads();
+    }
+
+    public void add(@Nonnull CachedConnector<?, ?, ?> connector) {
+        connectors.add(connector);
+    }
+
+    // Chunk events do not tell whether a loaded chunk is a full chunk that is still ticking
+    public boolean isLoaded(@Nonnull ChannelEnvironment environment, long tick) {
+        if (this.unloads != chunk.getUnloads()) {
+            this.unloads = chunk.getUnloads();
+            invalidate();
+        }
+        if (!chunk.isLoaded()) {
+            return false;
+        }
+        if (this.checkedTick != tick) {
+            this.checkedTick = tick;
+            boolean accessible = environment.isLoaded(pos);
+            if (this.accessible && !accessible) {
+                invalidate();
+            }
+            this.accessible = accessible;
+        }
+        return this.accessible;
+    }
+
+    private void invalidate() {
+        for (int i = 0; i < connectors.size(); i++) {
+            connectors.get(i).invalidate();
+        }
+    }
+}
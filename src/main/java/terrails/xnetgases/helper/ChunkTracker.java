@@ -0,0 +1,94 @@
+package terrails.xnetgases.helper;
+
+import mcjty.lib.varia.WorldTools;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.IWorld;
+import net.minecraft.world.World;
+import net.minecraftforge.event.world.ChunkEvent;
+import net.minecraftforge.event.world.WorldEvent;
+
+import javax.annotation.Nonnull;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Loaded state of the chunks that hold connectors, kept up to date by chunk events so channels do not
+ * have to ask the world every operation. Only chunks that a channel asked for are tracked.
+ * A chunk is loaded before it becomes accessible and stops being accessible before it unloads, so an
+ * unloaded chunk is certain but a loaded one still has to be checked with the world, see {@link ChunkGroup}.
+ * Events and lookups both happen on the server thread.
+ */
+public class ChunkTracker {
+
+    private static final Map<IWorld, Map<Long, TrackedChunk>> WORLDS = new WeakHashMap<>();
+
+    public static class TrackedChunk {
+
+        private boolean loaded;
+        private int unloads;
+
+        public TrackedChunk(boolean loaded) {
+            this.loaded = loaded;
+        }
+
+        public boolean isLoaded() {
+            return loaded;
+        }
+
+        // Counts how often the chunk got unloaded, the handlers cached before that are gone
+        public int getUnloads() {
+            return unloads;
+        }
+
+        public void setLoaded(boolean loaded) {
+            if (this.loaded && !loaded) {
+                this.unloads++;
+            }
+            this.loaded = loaded;
+        }
+    }
+
+    // State of the chunk holding the position, the same instance is returned until the world unloads
+    @Nonnull
+    public static TrackedChunk getChunk(@Nonnull World world, long pos) {
+        Map<Long, TrackedChunk> chunks = WORLDS.computeIfAbsent(world, w -> new HashMap<>());
+        long chunkPos = ChunkPos.asLong(BlockPos.unpackX(pos) >> 4, BlockPos.unpackZ(pos) >> 4);
+        TrackedChunk chunk = chunks.get(chunkPos);
+        if (chunk == null) {
+            chunk = new TrackedChunk(WorldTools.isLoaded(world, BlockPos.fromLong(pos)));
+            chunks.put(chunkPos, chunk);
+        }
+        return chunk;
+    }
+
+    public static void onChunkLoad(ChunkEvent.Load event) {
+        setLoaded(event, true);
+    }
+
+    public static void onChunkUnload(ChunkEvent.Unload event) {
+        setLoaded(event, false);
+    }
+
+    public static void onWorldUnload(WorldEvent.Unload event) {
+        Map<Long, TrackedChunk> chunks = WORLDS.remove(event.getWorld());
+        if (chunks != null) {
+            chunks.values().forEach(chunk -> chunk.setLoaded(false));
+        }
+    }
+
+    private static void setLoaded(@Nonnull ChunkEvent event, boolean loaded) {
+        if (event.getWorld() == null || event.getWorld().isRemote()) {
+            return;
+        }
+
+        Map<Long, TrackedChunk> chunks = WORLDS.get(event.getWorld());
+        if (chunks != null) {
+            TrackedChunk chunk = chunks.get(event.getChunk().getPos().asLong());
+            if (chunk != null) {
+                chunk.setLoaded(loaded);
+            }
+        }
+    }
+}
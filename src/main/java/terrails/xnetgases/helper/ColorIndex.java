@@ -0,0 +1,52 @@
+package terrails.xnetgases.helper;
+
+import mcjty.rftoolsbase.api.xnet.channels.IControllerContext;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Connectors of a cached list grouped by their color mask. The controller colors do not change during
+ * a channel tick, so each distinct mask is matched once per tick and the result is kept as a bitset
+ * over the list indices.
+ */
+public class ColorIndex {
+
+    private final int[] masks;
+    private final BitSet[] connectors;
+    private final BitSet enabled = new BitSet();
+
+    public ColorIndex(@Nonnull List<? extends CachedConnector<?, ?, ?>> list) {
+        List<Integer> masks = new ArrayList<>();
+        List<BitSet> connectors = new ArrayList<>();
+        for (int i = 0; i < list.size(); i++) {
+            int mask = list.get(i).getSettings().getColorsMask();
+            int index = masks.indexOf(mask);
+            if (index < 0) {
+                index = masks.size();
+                masks.add(mask);
+                connectors.add(new BitSet(list.size()));
+            }
+            connectors.get(index).set(i);
+        }
+
+        this.masks = masks.stream().mapToInt(Integer::intValue).toArray();
+        this.connectors = connectors.toArray(new BitSet[0]);
+    }
+
+    public void update(@Nonnull IControllerContext context) {
+        enabled.clear();
+        for (int i = 0; i < masks.length; i++) {
+            if (context.matchColor(masks[i])) {
+                enabled.or(connectors[i]);
+            }
+        }
+    }
+
+    // Result of the last update for the connector at this index
+    public boolean isEnabled(int index) {
+        return enabled.get(index);
+    }
+}
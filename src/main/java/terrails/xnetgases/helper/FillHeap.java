@@ -0,0 +1,116 @@
+package terrails.xnetgases.helper;
+
+import mekanism.api.chemical.Chemical;
+import mekanism.api.chemical.ChemicalStack;
+import mekanism.api.chemical.IChemicalHandler;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Consumers of a PROPORTIONAL operation ordered by how full they are, the emptiest on top.
+ * A batch is split by free space, whatever is left because some consumers take less than their
+ * share goes to the emptiest ones first. The arrays are kept between operations.
+ */
+public class FillHeap<CHEMICAL extends Chemical<CHEMICAL>, STACK extends ChemicalStack<CHEMICAL>, HANDLER extends IChemicalHandler<CHEMICAL, STACK>> {
+
+    private final List<CachedConnector<CHEMICAL, STACK, HANDLER>> consumers = new ArrayList<>();
+    private final List<HANDLER> handlers = new ArrayList<>();
+    private long[] limits = new long[8];
+    private long[] free = new long[8];
+    private double[] fill = new double[8];
+    private long[] shares = new long[8];
+    private int[] heap = new int[8];
+
+    public void clear() {
+        consumers.clear();
+        handlers.clear();
+    }
+
+    // Limit is what the consumer accepted when simulating, free and capacity are summed over its tanks
+    public void add(@Nonnull CachedConnector<CHEMICAL, STACK, HANDLER> consumer, @Nonnull HANDLER handler, long limit, long free, long capacity) {
+        int index = consumers.size();
+        if (index == limits.length) {
+            limits = Arrays.copyOf(limits, index * 2);
+            this.free = Arrays.copyOf(this.free, index * 2);
+            fill = Arrays.copyOf(fill, index * 2);
+            shares = Arrays.copyOf(shares, index * 2);
+            heap = Arrays.copyOf(heap, index * 2);
+        }
+        consumers.add(consumer);
+        handlers.add(handler);
+        limits[index] = limit;
+        // Handlers that do not report their tanks are weighted by what they accepted
+        this.free[index] = free > 0 ? free : limit;
+        fill[index] = capacity > 0 ? (double) (capacity - free) / capacity : 0;
+
+        heap[index] = index;
+        siftUp(index);
+    }
+
+    public boolean isEmpty() {
+        return consumers.isEmpty();
+    }
+
+    // Adds the share of every consumer to the plan, the emptiest consumer first
+    public void distribute(long amount, @Nonnull InsertionPlan<CHEMICAL, STACK, HANDLER> plan) {
+        int size = consumers.size();
+        double totalFree = 0;
+        for (int i = 0; i < size; i++) {
+            totalFree += free[i];
+        }
+
+        long left = amount;
+        for (int i = 0; i < size; i++) {
+            shares[i] = Math.min(limits[i], (long) (amount * (free[i] / totalFree)));
+            left -= shares[i];
+        }
+
+        while (size > 0) {
+            int index = heap[0];
+            heap[0] = heap[--size];
+            siftDown(0, size);
+
+            long extra = Math.min(limits[index] - shares[index], left);
+            shares[index] += extra;
+            left -= extra;
+            if (shares[index] > 0) {
+                plan.add(consumers.get(index), handlers.get(index), shares[index]);
+            }
+        }
+    }
+
+    private void siftUp(int position) {
+        int index = heap[position];
+        while (position > 0) {
+            int parent = (position - 1) / 2;
+            if (fill[heap[parent]] <= fill[index]) {
+                break;
+            }
+            heap[position] = heap[parent];
+            position = parent;
+        }
+        heap[position] = index;
+    }
+
+    private void siftDown(int position, int size) {
+        int index = heap[position];
+        while (true) {
+            int child = position * 2 + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && fill[heap[child + 1]] < fill[heap[child]]) {
+                child++;
+            }
+            if (fill[index] <= fill[heap[child]]) {
+                break;
+            }
+            heap[position] = heap[child];
+            position = child;
+        }
+        heap[position] = index;
+    }
+}
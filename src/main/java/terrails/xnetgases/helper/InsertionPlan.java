@@ -0,0 +1,76 @@
+package terrails.xnetgases.helper;
+
+import mekanism.api.chemical.Chemical;
+import mekanism.api.chemical.ChemicalStack;
+import mekanism.api.chemical.IChemicalHandler;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Amounts each consumer accepted during the simulate pass of an operation.
+ * The plan is executed as-is, so the consumers are not scanned a second time.
+ */
+public class InsertionPlan<CHEMICAL extends Chemical<CHEMICAL>, STACK extends ChemicalStack<CHEMICAL>, HANDLER extends IChemicalHandler<CHEMICAL, STACK>> {
+
+    private final List<CachedConnector<CHEMICAL, STACK, HANDLER>> consumers = new ArrayList<>();
+    private final List<HANDLER> handlers = new ArrayList<>();
+    private long[] amounts = new long[8];
+    private long total;
+
+    public void clear() {
+        consumers.clear();
+        handlers.clear();
+        total = 0;
+    }
+
+    public void add(@Nonnull CachedConnector<CHEMICAL, STACK, HANDLER> consumer, @Nonnull HANDLER handler, long amount) {
+        int index = consumers.size();
+        if (index == amounts.length) {
+            amounts = Arrays.copyOf(amounts, index * 2);
+        }
+        consumers.add(consumer);
+        handlers.add(handler);
+        amounts[index] = amount;
+        total += amount;
+    }
+
+    public void copyFrom(@Nonnull InsertionPlan<CHEMICAL, STACK, HANDLER> plan) {
+        clear();
+        for (int i = 0; i < plan.size(); i++) {
+            add(plan.getConsumer(i), plan.getHandler(i), plan.getAmount(i));
+        }
+    }
+
+    public boolean contains(@Nonnull CachedConnector<CHEMICAL, STACK, HANDLER> consumer) {
+        return consumers.contains(consumer);
+    }
+
+    public boolean isEmpty() {
+        return consumers.isEmpty();
+    }
+
+    public int size() {
+        return consumers.size();
+    }
+
+    @Nonnull
+    public CachedConnector<CHEMICAL, STACK, HANDLER> getConsumer(int index) {
+        return consumers.get(index);
+    }
+
+    @Nonnull
+    public HANDLER getHandler(int index) {
+        return handlers.get(index);
+    }
+
+    public long getAmount(int index) {
+        return amounts[index];
+    }
+
+    public long getTotal() {
+        return total;
+    }
+}
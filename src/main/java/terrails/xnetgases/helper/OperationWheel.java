@@ -0,0 +1,92 @@
+package terrails.xnetgases.helper;
+
+import java.util.Arrays;
+
+/**
+ * Timing wheel over the connectors of a cached list. Every connector is due once every {@code speed}
+ * passes, so a pass only touches the bucket of the connectors due in it. Passes are counted up
+ * without wrapping, connectors whose speed does not divide the old 1200 tick cycle keep their interval.
+ */
+public class OperationWheel {
+
+    private final int[] speeds;
+    private final int[][] buckets;
+    private final int[] bucketSizes;
+    private final int mask;
+    private long pass;
+
+    // Connectors due in the current pass, in list order
+    private int[] due = new int[8];
+    private int dueCount;
+
+    // Speed of each connector in passes, the first pass counted is the one after the given one
+    public OperationWheel(int[] speeds, long pass) {
+        this.speeds = new int[speeds.length];
+        int maxSpeed = 1;
+        for (int i = 0; i < speeds.length; i++) {
+            this.speeds[i] = Math.max(1, speeds[i]);
+            maxSpeed = Math.max(maxSpeed, this.speeds[i]);
+        }
+
+        // Larger than every speed, so a bucket never holds a connector due in a later round
+        int size = Integer.highestOneBit(maxSpeed) * 2;
+        this.buckets = new int[size][];
+        this.bucketSizes = new int[size];
+        this.mask = size - 1;
+        this.pass = pass;
+
+        // Connectors of the same speed run in the same passes, as they did with the modulo
+        for (int i = 0; i < this.speeds.length; i++) {
+            int speed = this.speeds[i];
+            schedule(i, (pass / speed + 1) * speed);
+        }
+    }
+
+    public long getPass() {
+        return pass;
+    }
+
+    // Moves to the next pass and collects the connectors due in it
+    public void advance() {
+        pass++;
+        int bucket = (int) (pass & mask);
+        int[] entries = buckets[bucket];
+        int size = bucketSizes[bucket];
+        bucketSizes[bucket] = 0;
+
+        if (due.length < size) {
+            due = new int[Math.max(size, due.length * 2)];
+        }
+        dueCount = size;
+        if (size > 0) {
+            System.arraycopy(entries, 0, due, 0, size);
+            Arrays.sort(due, 0, size);
+        }
+
+        for (int i = 0; i < size; i++) {
+            schedule(due[i], pass + speeds[due[i]]);
+        }
+    }
+
+    public int getDueCount() {
+        return dueCount;
+    }
+
+    // Index into the cached list of the due connector
+    public int getDue(int i) {
+        return due[i];
+    }
+
+    private void schedule(int index, long pass) {
+        int bucket = (int) (pass & mask);
+        int[] entries = buckets[bucket];
+        int size = bucketSizes[bucket];
+        if (entries == null) {
+            entries = buckets[bucket] = new int[4];
+        } else if (size == entries.length) {
+            entries = buckets[bucket] = Arrays.copyOf(entries, size * 2);
+        }
+        entries[size] = index;
+        bucketSizes[bucket] = size + 1;
+    }
+}
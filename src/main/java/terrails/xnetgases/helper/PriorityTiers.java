@@ -0,0 +1,47 @@
+package terrails.xnetgases.helper;
+
+import mekanism.api.chemical.Chemical;
+
+import javax.annotation.Nonnull;
+import java.util.Arrays;
+
+/**
+ * Highest priority per chemical among the connectors holding it. Kept in parallel arrays that are
+ * reused every time the tiers are rebuilt, a channel only sees a handful of chemicals so lookups scan them.
+ */
+public class PriorityTiers {
+
+    private Chemical<?>[] chemicals = new Chemical<?>[4];
+    private int[] priorities = new int[4];
+    private int size;
+
+    public void clear() {
+        size = 0;
+    }
+
+    public void raise(@Nonnull Chemical<?> chemical, int priority) {
+        for (int i = 0; i < size; i++) {
+            if (chemicals[i] == chemical) {
+                priorities[i] = Math.max(priorities[i], priority);
+                return;
+            }
+        }
+        if (size == chemicals.length) {
+            chemicals = Arrays.copyOf(chemicals, size * 2);
+            priorities = Arrays.copyOf(priorities, size * 2);
+        }
+        chemicals[size] = chemical;
+        priorities[size] = priority;
+        size++;
+    }
+
+    // True if a connector holding the chemical has a priority higher than the given one
+    public boolean isAbove(@Nonnull Chemical<?> chemical, int priority) {
+        for (int i = 0; i < size; i++) {
+            if (chemicals[i] == chemical) {
+                return priorities[i] > priority;
+            }
+        }
+        return false;
+    }
+}
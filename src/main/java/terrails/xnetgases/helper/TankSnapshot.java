@@ -0,0 +1,115 @@
+package terrails.xnetgases.helper;
+
+import mekanism.api.chemical.Chemical;
+import mekanism.api.chemical.ChemicalStack;
+import mekanism.api.chemical.IChemicalHandler;
+import net.minecraft.util.Direction;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Arrays;
+
+/**
+ * Chemical, amount and capacity of every tank of a handler as read from one side.
+ * Taken by {@link TankSnapshots} and refilled in place when the slot is reused.
+ */
+public class TankSnapshot {
+
+    private int tanks;
+    private Chemical<?>[] types = new Chemical<?>[2];
+    private boolean[] empty = new boolean[2];
+    private long[] amounts = new long[2];
+    private long[] capacities = new long[2];
+
+    <CHEMICAL extends Chemical<CHEMICAL>, STACK extends ChemicalStack<CHEMICAL>, HANDLER extends IChemicalHandler<CHEMICAL, STACK>> void read(@Nonnull ChemicalAdapter<CHEMICAL, STACK, HANDLER> adapter, @Nonnull HANDLER handler, @Nullable Direction side) {
+        ensureTanks(adapter.getTanks(handler, side));
+        for (int i = 0; i < tanks; i++) {
+            STACK stack = adapter.getChemicalInTank(handler, i, side);
+            types[i] = stack.getType();
+            empty[i] = stack.isEmpty();
+            amounts[i] = stack.getAmount();
+            capacities[i] = adapter.getTankCapacity(handler, i, side);
+        }
+    }
+
+    public void copyFrom(@Nonnull TankSnapshot other) {
+        ensureTanks(other.tanks);
+        System.arraycopy(other.types, 0, types, 0, tanks);
+        System.arraycopy(other.empty, 0, empty, 0, tanks);
+        System.arraycopy(other.amounts, 0, amounts, 0, tanks);
+        System.arraycopy(other.capacities, 0, capacities, 0, tanks);
+    }
+
+    // True if every tank holds the same chemical and amount, capacities are not compared
+    public boolean hasSameContents(@Nonnull TankSnapshot other) {
+        if (tanks != other.tanks) {
+            return false;
+        }
+        for (int i = 0; i < tanks; i++) {
+            if (empty[i] != other.empty[i] || amounts[i] != other.amounts[i] || (!empty[i] && types[i] != other.types[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void ensureTanks(int tanks) {
+        this.tanks = tanks;
+        if (tanks > types.length) {
+            types = Arrays.copyOf(types, tanks);
+            empty = Arrays.copyOf(empty, tanks);
+            amounts = Arrays.copyOf(amounts, tanks);
+            capacities = Arrays.copyOf(capacities, tanks);
+        }
+    }
+
+    public int getTanks() {
+        return tanks;
+    }
+
+    // The empty chemical for an empty tank, as ChemicalAdapter#getChemicalInTank would give
+    @Nonnull
+    public Chemical<?> getType(int tank) {
+        return types[tank];
+    }
+
+    public boolean isEmpty(int tank) {
+        return empty[tank];
+    }
+
+    public long getAmount(int tank) {
+        return amounts[tank];
+    }
+
+    // Total amount of the chemical, or of everything if it is null
+    public long getCount(@Nullable Chemical<?> filter) {
+        long count = 0;
+        for (int i = 0; i < tanks; i++) {
+            if (!empty[i] && (filter == null || types[i] == filter)) {
+                count += amounts[i];
+            }
+        }
+        return count;
+    }
+
+    // Capacity of the tanks that are empty or already hold the chemical
+    public long getCapacity(@Nonnull Chemical<?> chemical) {
+        long capacity = 0;
+        for (int i = 0; i < tanks; i++) {
+            if (empty[i] || types[i] == chemical) {
+                capacity += capacities[i];
+            }
+        }
+        return capacity;
+    }
+
+    // True if any tank holds the chemical, empty tanks hold the empty chemical
+    public boolean contains(@Nonnull Chemical<?> chemical) {
+        for (int i = 0; i < tanks; i++) {
+            if (types[i] == chemical) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,129 @@
+package terrails.xnetgases.helper;
+
+import mcjty.rftoolsbase.api.xnet.channels.IControllerContext;
+import mekanism.api.chemical.Chemical;
+import mekanism.api.chemical.ChemicalStack;
+import mekanism.api.chemical.IChemicalHandler;
+import net.minecraft.util.Direction;
+import net.minecraft.world.IWorld;
+import net.minecraft.world.World;
+import net.minecraftforge.event.TickEvent;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.WeakHashMap;
+
+/**
+ * Tank contents read during the tick of one controller, shared by its gas, slurry and logic channels.
+ * Keyed by block position, side and chemical type. Snapshots are dropped when another controller of the
+ * world starts ticking, since tile entities tick in between, at the end of the server tick and whenever
+ * a channel executes a transfer on the block.
+ */
+public class TankSnapshots {
+
+    private static final Map<IWorld, TankSnapshots> WORLDS = new WeakHashMap<>();
+
+    // Controller ticks after which snapshots of blocks that are no longer read get removed
+    private static final long EXPIRY = 1200;
+    private static final Direction[] SIDES = Direction.values();
+
+    private final Map<Key, Entry> entries = new HashMap<>();
+    private final Key lookup = new Key();
+    private long generation;
+    @Nullable private IControllerContext controller;
+
+    @Nonnull
+    public static TankSnapshots forWorld(@Nonnull World world) {
+        return WORLDS.computeIfAbsent(world, w -> new TankSnapshots());
+    }
+
+    public static void onServerTick(TickEvent.ServerTickEvent event) {
+        if (event.phase == TickEvent.Phase.END) {
+            WORLDS.values().forEach(TankSnapshots::clear);
+        }
+    }
+
+    // Drops every snapshot if they were taken during the tick of another controller
+    @Nonnull
+    public TankSnapshots forController(@Nonnull IControllerContext controller) {
+        if (this.controller != controller) {
+            this.controller = controller;
+            clear();
+        }
+        return this;
+    }
+
+    // Snapshot of the handler at the position, read from it if there is none for this tick yet
+    @Nonnull
+    public <CHEMICAL extends Chemical<CHEMICAL>, STACK extends ChemicalStack<CHEMICAL>, HANDLER extends IChemicalHandler<CHEMICAL, STACK>> TankSnapshot get(long pos, @Nullable Direction side, @Nonnull ChemicalAdapter<CHEMICAL, STACK, HANDLER> adapter, @Nonnull HANDLER handler) {
+        Entry entry = entries.get(lookup.set(pos, side, adapter));
+        if (entry == null) {
+            entry = new Entry();
+            entries.put(new Key().set(pos, side, adapter), entry);
+        }
+        if (!entry.valid || entry.generation != generation) {
+            entry.snapshot.read(adapter, handler, side);
+            entry.generation = generation;
+            entry.valid = true;
+        }
+        return entry.snapshot;
+    }
+
+    // Drops the snapshots of every side after the tanks of the block changed
+    public void invalidate(long pos, @Nonnull ChemicalAdapter<?, ?, ?> adapter) {
+        invalidate(pos, null, adapter);
+        for (Direction side : SIDES) {
+            invalidate(pos, side, adapter);
+        }
+    }
+
+    public void clear() {
+        generation++;
+        if (generation % EXPIRY == 0) {
+            entries.values().removeIf(entry -> generation - entry.generation > EXPIRY);
+        }
+    }
+
+    private void invalidate(long pos, @Nullable Direction side, @Nonnull ChemicalAdapter<?, ?, ?> adapter) {
+        Entry entry = entries.get(lookup.set(pos, side, adapter));
+        if (entry != null) {
+            entry.valid = false;
+        }
+    }
+
+    private static class Entry {
+        private final TankSnapshot snapshot = new TankSnapshot();
+        private long generation;
+        private boolean valid;
+    }
+
+    // Reused for lookups, only keys put into the map are never changed
+    private static class Key {
+        private long pos;
+        @Nullable private Direction side;
+        private ChemicalAdapter<?, ?, ?> adapter;
+
+        private Key set(long pos, @Nullable Direction side, @Nonnull ChemicalAdapter<?, ?, ?> adapter) {
+            this.pos = pos;
+            this.side = side;
+            this.adapter = adapter;
+            return this;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return pos == key.pos && side == key.side && adapter == key.adapter;
+        }
+
+        @Override
+        public int hashCode() {
+            return (Long.hashCode(pos) * 31 + Objects.hashCode(side)) * 31 + System.identityHashCode(adapter);
+        }
+    }
+}
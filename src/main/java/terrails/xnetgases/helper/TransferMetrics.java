@@ -0,0 +1,118 @@
+package terrails.xnetgases.helper;
+
+import mcjty.rftoolsbase.api.xnet.channels.IChannelSettings;
+import mekanism.api.chemical.Chemical;
+import org.apache.commons.lang3.mutable.MutableLong;
+
+import javax.annotation.Nonnull;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Counters of a channel or of a single connector. They are only written from the server thread
+ * and are plain fields, so reading them from another thread may give slightly outdated values.
+ * Channel metrics are registered here for as long as the channel settings exist.
+ */
+public class TransferMetrics {
+
+    private static final Map<IChannelSettings, TransferMetrics> CHANNELS = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private long ticks;
+    private long operations;
+    private long successes;
+    private long simulations;
+    private long executions;
+    private long nanos;
+    private final Map<Chemical<?>, MutableLong> moved = new HashMap<>();
+
+    @Nonnull
+    public static TransferMetrics register(@Nonnull IChannelSettings channel) {
+        TransferMetrics metrics = new TransferMetrics();
+        CHANNELS.put(channel, metrics);
+        return metrics;
+    }
+
+    // Snapshot of the metrics of every loaded channel
+    @Nonnull
+    public static Map<IChannelSettings, TransferMetrics> getChannels() {
+        synchronized (CHANNELS) {
+            return new HashMap<>(CHANNELS);
+        }
+    }
+
+    public void addTick() {
+        ticks++;
+    }
+
+    public void addOperation() {
+        operations++;
+    }
+
+    public void addSuccess() {
+        successes++;
+    }
+
+    public void addSimulation() {
+        simulations++;
+    }
+
+    public void addExecution() {
+        executions++;
+    }
+
+    public void addNanos(long nanos) {
+        this.nanos += nanos;
+    }
+
+    // A successful operation that moved the given amount
+    public void addTransfer(@Nonnull Chemical<?> chemical, long amount) {
+        successes++;
+        MutableLong total = moved.get(chemical);
+        if (total == null) {
+            moved.put(chemical, new MutableLong(amount));
+        } else total.add(amount);
+    }
+
+    public long getTicks() {
+        return ticks;
+    }
+
+    public long getOperations() {
+        return operations;
+    }
+
+    public long getSuccesses() {
+        return successes;
+    }
+
+    public long getSimulations() {
+        return simulations;
+    }
+
+    public long getExecutions() {
+        return executions;
+    }
+
+    public long getNanos() {
+        return nanos;
+    }
+
+    @Nonnull
+    public Map<Chemical<?>, Long> getMoved() {
+        Map<Chemical<?>, Long> map = new HashMap<>();
+        moved.forEach((chemical, amount) -> map.put(chemical, amount.longValue()));
+        return map;
+    }
+
+    public void reset() {
+        ticks = 0;
+        operations = 0;
+        successes = 0;
+        simulations = 0;
+        executions = 0;
+        nanos = 0;
+        moved.clear();
+    }
+}
@@ -0,0 +1,100 @@
+package terrails.xnetgases.helper;
+
+import mcjty.lib.varia.WorldTools;
+import mcjty.rftoolsbase.api.xnet.channels.IControllerContext;
+import mcjty.rftoolsbase.api.xnet.helper.AbstractConnectorSettings;
+import mcjty.xnet.setup.Config;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import net.minecraftforge.common.capabilities.ICapabilityProvider;
+import terrails.xnetgases.XNetGases;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * {@link ChannelEnvironment} of a controller in a loaded world. Every channel owns one and points it
+ * to the controller before ticking, the positions are unpacked into a single mutable BlockPos.
+ */
+public class WorldEnvironment implements ChannelEnvironment {
+
+    // DefaultChannelSettings#checkRedstone is protected, so the channel hands it over
+    @FunctionalInterface
+    public interface RedstoneCheck {
+        boolean isBlocked(World world, AbstractConnectorSettings settings, BlockPos connectorPos);
+    }
+
+    private final RedstoneCheck redstone;
+    private final BlockPos.Mutable pos = new BlockPos.Mutable();
+    private World world;
+    private IControllerContext controller;
+
+    public WorldEnvironment(@Nonnull RedstoneCheck redstone) {
+        this.redstone = redstone;
+    }
+
+    @Nonnull
+    public WorldEnvironment withController(@Nonnull IControllerContext controller) {
+        this.world = controller.getControllerWorld();
+        this.controller = controller;
+        return this;
+    }
+
+    @Override
+    public boolean isLoaded(long pos) {
+        return WorldTools.isLoaded(world, this.pos.setPos(pos));
+    }
+
+    @Nonnull
+    @Override
+    public ChunkTracker.TrackedChunk getChunk(long pos) {
+        return ChunkTracker.getChunk(world, pos);
+    }
+
+    @Override
+    public boolean isRedstoneBlocked(@Nonnull AbstractConnectorSettings settings, long connectorPos) {
+        return redstone.isBlocked(world, settings, this.pos.setPos(connectorPos));
+    }
+
+    @Nullable
+    @Override
+    public ICapabilityProvider getProvider(long pos) {
+        return world.getTileEntity(this.pos.setPos(pos));
+    }
+
+    @Nonnull
+    @Override
+    public TankSnapshots getSnapshots() {
+        return TankSnapshots.forWorld(world).forController(controller);
+    }
+
+    @Override
+    public int getOperationCost() {
+        return Config.controllerOperationRFT.get();
+    }
+
+    @Override
+    public int getMaxIdleBackoff() {
+        return XNetGases.maxIdleBackoff.get();
+    }
+
+    @Override
+    public int getMaxOperationsPerTick() {
+        return XNetGases.maxOperationsPerTick.get();
+    }
+
+    @Override
+    public long getMaxNanosPerTick() {
+        return XNetGases.maxNanosPerTick.get();
+    }
+
+    @Override
+    public boolean isPlanReplayEnabled() {
+        return XNetGases.replayTransferPlans.get();
+    }
+
+    @Override
+    public boolean isChangeTrackingEnabled() {
+        return XNetGases.trackTankChanges.get();
+    }
+}
@@ -0,0 +1,123 @@
+package terrails.xnetgases.logic;
+
+import mekanism.api.chemical.Chemical;
+import mekanism.api.chemical.gas.IGasHandler;
+import mekanism.api.chemical.slurry.ISlurryHandler;
+import net.minecraft.util.Direction;
+import net.minecraftforge.common.capabilities.ICapabilityProvider;
+import terrails.xnetgases.helper.ChemicalAdapter;
+import terrails.xnetgases.helper.TankSnapshot;
+import terrails.xnetgases.helper.TankSnapshots;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Arrays;
+
+/**
+ * Amount per chemical in the tanks of the block a logic connector is attached to. The tanks are
+ * read once per check, through the {@link TankSnapshots} of the tick, and every sensor of the connector reads from the table.
+ * The logic channel keeps one instance and fills it again for every connector.
+ */
+public class SensedContents {
+
+    private Chemical<?>[] chemicals = new Chemical<?>[4];
+    private long[] amounts = new long[4];
+    private int size;
+
+    private boolean gasHandler;
+    private boolean slurryHandler;
+    private long gasTotal;
+    private long slurryTotal;
+
+    public void read(@Nonnull TankSnapshots snapshots, long pos, @Nullable ICapabilityProvider te, @Nullable Direction facing) {
+        size = 0;
+
+        IGasHandler gas = ChemicalAdapter.GAS.getHandler(te, facing);
+        gasHandler = gas != null;
+        gasTotal = gas == null ? 0 : add(snapshots.get(pos, facing, ChemicalAdapter.GAS, gas));
+
+        ISlurryHandler slurry = ChemicalAdapter.SLURRY.getHandler(te, facing);
+        slurryHandler = slurry != null;
+        slurryTotal = slurry == null ? 0 : add(snapshots.get(pos, facing, ChemicalAdapter.SLURRY, slurry));
+    }
+
+    public void copyFrom(@Nonnull SensedContents other) {
+        if (other.size > chemicals.length) {
+            chemicals = Arrays.copyOf(chemicals, other.size);
+            amounts = Arrays.copyOf(amounts, other.size);
+        }
+        System.arraycopy(other.chemicals, 0, chemicals, 0, other.size);
+        System.arraycopy(other.amounts, 0, amounts, 0, other.size);
+        size = other.size;
+        gasHandler = other.gasHandler;
+        slurryHandler = other.slurryHandler;
+        gasTotal = other.gasTotal;
+        slurryTotal = other.slurryTotal;
+    }
+
+    // True if the sensors would read the same from both, chemicals are compared in the order the tanks listed them
+    public boolean hasSameContents(@Nonnull SensedContents other) {
+        if (size != other.size || gasHandler != other.gasHandler || slurryHandler != other.slurryHandler
+                || gasTotal != other.gasTotal || slurryTotal != other.slurryTotal) {
+            return false;
+        }
+        for (int i = 0; i < size; i++) {
+            if (chemicals[i] != other.chemicals[i] || amounts[i] != other.amounts[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public boolean hasGasHandler() {
+        return gasHandler;
+    }
+
+    public boolean hasSlurryHandler() {
+        return slurryHandler;
+    }
+
+    public long getGasTotal() {
+        return gasTotal;
+    }
+
+    public long getSlurryTotal() {
+        return slurryTotal;
+    }
+
+    public long getAmount(Chemical<?> chemical) {
+        for (int i = 0; i < size; i++) {
+            if (chemicals[i] == chemical) {
+                return amounts[i];
+            }
+        }
+        return 0;
+    }
+
+    private long add(@Nonnull TankSnapshot snapshot) {
+        long total = 0;
+        for (int tank = 0; tank < snapshot.getTanks(); tank++) {
+            if (!snapshot.isEmpty(tank)) {
+                total += snapshot.getAmount(tank);
+                addAmount(snapshot.getType(tank), snapshot.getAmount(tank));
+            }
+        }
+        return total;
+    }
+
+    private void addAmount(Chemical<?> chemical, long amount) {
+        for (int i = 0; i < size; i++) {
+            if (chemicals[i] == chemical) {
+                amounts[i] += amount;
+                return;
+            }
+        }
+        if (size == chemicals.length) {
+            chemicals = Arrays.copyOf(chemicals, size * 2);
+            amounts = Arrays.copyOf(amounts, size * 2);
+        }
+        chemicals[size] = chemical;
+        amounts[size] = amount;
+        size++;
+    }
+}
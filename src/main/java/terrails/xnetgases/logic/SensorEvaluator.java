@@ -0,0 +1,70 @@
+package terrails.xnetgases.logic;
+
+import mekanism.api.chemical.gas.Gas;
+import mekanism.api.chemical.gas.GasStack;
+import mekanism.api.chemical.slurry.Slurry;
+import mekanism.api.chemical.slurry.SlurryStack;
+import net.minecraft.item.ItemStack;
+import terrails.xnetgases.helper.ChemicalAdapter;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Settings of an {@link XGSensor} resolved into what a check needs. The filter item is looked up once
+ * when the sensor changes, so a check only looks up an amount in the {@link SensedContents} and compares two longs.
+ * A sensor with a release amount compares against it instead while its output is on.
+ */
+public final class SensorEvaluator {
+
+    public static final SensorEvaluator OFF = new SensorEvaluator(XGSensor.SensorMode.OFF, XGSensor.Operator.EQUAL, 0, 0, null, null, false);
+
+    private final XGSensor.SensorMode mode;
+    private final XGSensor.Operator operator;
+    private final long threshold;
+    private final long release;
+    @Nullable private final Gas gas;
+    @Nullable private final Slurry slurry;
+    // A filter item without a tank never matches
+    private final boolean unmatched;
+
+    private SensorEvaluator(XGSensor.SensorMode mode, XGSensor.Operator operator, long threshold, long release, @Nullable Gas gas, @Nullable Slurry slurry, boolean unmatched) {
+        this.mode = mode;
+        this.operator = operator;
+        this.threshold = threshold;
+        this.release = release;
+        this.gas = gas;
+        this.slurry = slurry;
+        this.unmatched = unmatched;
+    }
+
+    @Nonnull
+    public static SensorEvaluator compile(@Nonnull XGSensor.SensorMode mode, @Nonnull XGSensor.Operator operator, long threshold, @Nullable Integer release, @Nonnull ItemStack filter) {
+        long off = release == null ? threshold : release;
+        switch (mode) {
+            case GAS: {
+                GasStack stack = filter.isEmpty() ? null : ChemicalAdapter.GAS.getStackIn(filter);
+                Gas gas = stack == null ? null : stack.getType();
+                return new SensorEvaluator(mode, operator, threshold, off, gas, null, !filter.isEmpty() && gas == null);
+            }
+            case SLURRY: {
+                SlurryStack stack = filter.isEmpty() ? null : ChemicalAdapter.SLURRY.getStackIn(filter);
+                Slurry slurry = stack == null ? null : stack.getType();
+                return new SensorEvaluator(mode, operator, threshold, off, null, slurry, !filter.isEmpty() && slurry == null);
+            }
+        }
+        return OFF;
+    }
+
+    public boolean test(@Nonnull SensedContents contents, boolean on) {
+        if (unmatched) {
+            return false;
+        }
+        long amount = on ? release : threshold;
+        switch (mode) {
+            case GAS: return contents.hasGasHandler() && operator.match(gas == null ? contents.getGasTotal() : contents.getAmount(gas), amount);
+            case SLURRY: return contents.hasSlurryHandler() && operator.match(slurry == null ? contents.getSlurryTotal() : contents.getAmount(slurry), amount);
+        }
+        return false;
+    }
+}
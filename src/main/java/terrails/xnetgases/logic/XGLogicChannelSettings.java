@@ -1,7 +1,6 @@
 package terrails.xnetgases.logic;
 
 import com.google.gson.JsonObject;
-import mcjty.lib.varia.WorldTools;
 import mcjty.rftoolsbase.api.xnet.channels.IChannelSettings;
 import mcjty.rftoolsbase.api.xnet.channels.IControllerContext;
 import mcjty.rftoolsbase.api.xnet.gui.IEditorGui;
@@ -10,15 +9,19 @@ import mcjty.rftoolsbase.api.xnet.helper.DefaultChannelSettings;
 import mcjty.rftoolsbase.api.xnet.keys.SidedConsumer;
 import mcjty.xnet.XNet;
 import net.minecraft.nbt.CompoundNBT;
-import net.minecraft.tileentity.TileEntity;
 import net.minecraft.util.Direction;
 import net.minecraft.util.ResourceLocation;
 import net.minecraft.util.math.BlockPos;
-import net.minecraft.world.World;
 import org.apache.commons.lang3.tuple.Pair;
+import terrails.xnetgases.helper.ChannelEnvironment;
+import terrails.xnetgases.helper.OperationWheel;
+import terrails.xnetgases.helper.TransferMetrics;
+import terrails.xnetgases.helper.WorldEnvironment;
 
+import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
@@ -28,8 +31,26 @@ public class XGLogicChannelSettings extends DefaultChannelSettings implements IC
 
     private int delay = 0;
     private int colors = 0;
+    // How many connectors output each color, a color is on while its count is not 0
+    private final int[] colorCounts = new int[32];
+    private boolean colorsChanged;
     private List<Pair<SidedConsumer, XGLogicConnectorSettings>> sensors = null;
 
+    // Passes started so far, the wheel schedules the sensors by it
+    private long pass;
+    private OperationWheel sensorWheel = null;
+
+    // Tanks of the connector being checked, read once and shared by its sensors
+    private final SensedContents contents = new SensedContents();
+
+    private final TransferMetrics metrics = TransferMetrics.register(this);
+    private final WorldEnvironment world = new WorldEnvironment(this::checkRedstone);
+
+    @Nonnull
+    public TransferMetrics getMetrics() {
+        return metrics;
+    }
+
     @Override
     public JsonObject writeToJson() {
         return new JsonObject();
@@ -49,6 +70,8 @@ public class XGLogicChannelSettings extends DefaultChannelSettings implements IC
 
     @Override
     public void tick(int channel, IControllerContext context) {
+        metrics.addTick();
+        colorsChanged = false;
         delay--;
         if (delay <= 0) {
             delay = 200 * 6;
@@ -57,47 +80,89 @@ public class XGLogicChannelSettings extends DefaultChannelSettings implements IC
             return;
         }
 
-        int d = delay / 5;
+        long start = System.nanoTime();
+        int previousColors = colors;
         updateCache(channel, context);
-        World world = context.getControllerWorld();
+        sensorWheel.advance();
+        pass = sensorWheel.getPass();
+        ChannelEnvironment environment = getEnvironment(context);
 
-        colors = 0;
-        for (Pair<SidedConsumer, XGLogicConnectorSettings> entry : sensors) {
+        for (int j = 0; j < sensorWheel.getDueCount(); j++) {
+            Pair<SidedConsumer, XGLogicConnectorSettings> entry = sensors.get(sensorWheel.getDue(j));
             XGLogicConnectorSettings settings = entry.getValue();
-            if (d % settings.getSpeed() != 0) {
-                // Use the color settings from this connector as we last remembered it
-                colors |= settings.getColorMask();
-                continue;
-            }
             int sensorColors = 0;
             BlockPos connectorPos = context.findConsumerPosition(entry.getKey().getConsumerId());
             if (connectorPos != null) {
                 Direction side = entry.getKey().getSide();
-                BlockPos pos = connectorPos.offset(side);
-                if (!WorldTools.isLoaded(world, pos)) {
+                long pos = BlockPos.offset(connectorPos.toLong(), side);
+                if (!environment.isLoaded(pos)) {
                     // If it is not chunkloaded we just use the color settings as we last remembered it
-                    colors |= settings.getColorMask();
                     continue;
                 }
 
-                boolean sense = !checkRedstone(world, settings, connectorPos);
+                boolean sense = !environment.isRedstoneBlocked(settings, connectorPos.toLong());
                 if (sense && !context.matchColor(settings.getColorsMask())) {
                     sense = false;
                 }
 
                 // If sense is false the sensor is disabled which means the colors from it will also be disabled
-                if (sense) {
-                    TileEntity te = world.getTileEntity(pos);
+                if (!sense) {
+                    settings.forgetContents();
+                } else {
+                    long senseStart = System.nanoTime();
+                    contents.read(environment.getSnapshots(), pos, environment.getProvider(pos), settings.getFacing());
+
+                    // The sensors would come to the same result for a tank that did not change,
+                    // unless one of them still waits for its hold time to switch
+                    if (environment.isChangeTrackingEnabled() && settings.isUnchanged(contents) && settings.isSettled()) {
+                        settings.getMetrics().addNanos(System.nanoTime() - senseStart);
+                        continue;
+                    }
 
-                    for (XGSensor sensor : settings.getSensors()) {
-                        if (sensor.test(te, settings)) {
+                    List<XGSensor> connectorSensors = settings.getSensors();
+                    for (int i = 0; i < connectorSensors.size(); i++) {
+                        XGSensor sensor = connectorSensors.get(i);
+                        metrics.addOperation();
+                        settings.getMetrics().addOperation();
+                        if (sensor.test(contents, pass * 5)) {
+                            metrics.addSuccess();
+                            settings.getMetrics().addSuccess();
                             sensorColors |= 1 << sensor.getOutputColor().ordinal();
                         }
                     }
+                    settings.getMetrics().addNanos(System.nanoTime() - senseStart);
+                }
+            } else settings.forgetContents();
+            setColorMask(settings, sensorColors);
+        }
+
+        // Sensors that were not due keep the color settings as we last remembered them
+        colorsChanged = colors != previousColors;
+        metrics.addNanos(System.nanoTime() - start);
+    }
+
+    @Nonnull
+    protected ChannelEnvironment getEnvironment(@Nonnull IControllerContext context) {
+        return world.withController(context);
+    }
+
+    // Only the colors that differ between the old and the new mask of the connector are counted again
+    private void setColorMask(@Nonnull XGLogicConnectorSettings settings, int mask) {
+        int changed = settings.getColorMask() ^ mask;
+        if (changed == 0) {
+            return;
+        }
+        settings.setColorMask(mask);
+        while (changed != 0) {
+            int color = Integer.numberOfTrailingZeros(changed);
+            changed &= changed - 1;
+            if ((mask & (1 << color)) != 0) {
+                if (colorCounts[color]++ == 0) {
+                    colors |= 1 << color;
                 }
+            } else if (--colorCounts[color] == 0) {
+                colors &= ~(1 << color);
             }
-            settings.setColorMask(sensorColors);
-            colors |= sensorColors;
         }
     }
 
@@ -107,12 +172,27 @@ public class XGLogicChannelSettings extends DefaultChannelSettings implements IC
             context.getConnectors(channel).entrySet().stream()
                     .map((entry) -> Pair.of(entry.getKey(), (XGLogicConnectorSettings) entry.getValue()))
                     .forEach(sensors::add);
+            sensorWheel = new OperationWheel(sensors.stream().mapToInt(entry -> entry.getValue().getSpeed()).toArray(), pass);
+
+            // Connectors may have been added or removed, so the counts start over from the masks they remember
+            Arrays.fill(colorCounts, 0);
+            colors = 0;
+            for (int i = 0; i < sensors.size(); i++) {
+                int mask = sensors.get(i).getValue().getColorMask();
+                colors |= mask;
+                while (mask != 0) {
+                    colorCounts[Integer.numberOfTrailingZeros(mask)]++;
+                    mask &= mask - 1;
+                }
+            }
         }
     }
 
     @Override
     public void cleanCache() {
         sensors = null;
+        sensorWheel = null;
+        Arrays.fill(colorCounts, 0);
     }
 
     @Override
@@ -120,6 +200,11 @@ public class XGLogicChannelSettings extends DefaultChannelSettings implements IC
         return colors;
     }
 
+    // True if the last tick changed the colors of this channel, nothing gated on them has to be checked again otherwise
+    public boolean hasColorsChanged() {
+        return colorsChanged;
+    }
+
     @Nullable
     @Override
     public IndicatorIcon getIndicatorIcon() {
@@ -7,8 +7,7 @@ import net.minecraft.tileentity.TileEntity;
 import net.minecraft.util.Direction;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.World;
-import terrails.xnetgases.gas.GasUtils;
-import terrails.xnetgases.slurry.SlurryUtils;
+import terrails.xnetgases.helper.ChemicalAdapter;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -28,7 +27,7 @@ public class XGLogicChannelType implements IChannelType {
     @Override
     public boolean supportsBlock(@Nonnull World world, @Nonnull BlockPos pos, @Nullable Direction direction) {
         TileEntity tile = world.getTileEntity(pos);
-        return GasUtils.getGasHandlerFor(tile, direction).isPresent() || SlurryUtils.getSlurryHandlerFor(tile, direction).isPresent();
+        return ChemicalAdapter.GAS.getHandlerFor(tile, direction).isPresent() || ChemicalAdapter.SLURRY.getHandlerFor(tile, direction).isPresent();
     }
 
     @Nonnull
@@ -12,6 +12,7 @@ import mcjty.xnet.XNet;
 import net.minecraft.nbt.CompoundNBT;
 import net.minecraft.util.Direction;
 import net.minecraft.util.ResourceLocation;
+import terrails.xnetgases.helper.TransferMetrics;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -34,6 +35,12 @@ public class XGLogicConnectorSettings extends AbstractConnectorSettings {
     private int colors;
     private int speed = 2;
 
+    // Contents of the tank when the sensors last ran, forgotten whenever the sensors change
+    private boolean contentsKnown;
+    @Nullable private SensedContents contents;
+
+    private final TransferMetrics metrics = new TransferMetrics();
+
     public XGLogicConnectorSettings(@Nonnull Direction side) {
         super(side);
         sensors = new ArrayList<>(SENSORS);
@@ -46,6 +53,11 @@ public class XGLogicConnectorSettings extends AbstractConnectorSettings {
         return sensors;
     }
 
+    @Nonnull
+    public TransferMetrics getMetrics() {
+        return metrics;
+    }
+
     public void setColorMask(int colors) {
         this.colors = colors;
     }
@@ -54,6 +66,31 @@ public class XGLogicConnectorSettings extends AbstractConnectorSettings {
         return colors;
     }
 
+    // True if the tank looks the same as when the sensors last ran, remembers the new contents otherwise
+    public boolean isUnchanged(@Nonnull SensedContents contents) {
+        if (this.contents == null) {
+            this.contents = new SensedContents();
+        } else if (this.contentsKnown && this.contents.hasSameContents(contents)) {
+            return true;
+        }
+        this.contentsKnown = true;
+        this.contents.copyFrom(contents);
+        return false;
+    }
+
+    public void forgetContents() {
+        this.contentsKnown = false;
+    }
+
+    public boolean isSettled() {
+        for (int i = 0; i < sensors.size(); i++) {
+            if (!sensors.get(i).isSettled()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     @Nullable
     @Override
     public IndicatorIcon getIndicatorIcon() {
@@ -117,6 +154,7 @@ public class XGLogicConnectorSettings extends AbstractConnectorSettings {
         for (XGSensor sensor : sensors) {
             sensor.update(data);
         }
+        forgetContents();
     }
 
     @Override
@@ -146,6 +184,7 @@ public class XGLogicConnectorSettings extends AbstractConnectorSettings {
             sensor.readFromJson(o);
             sensors.add(sensor);
         }
+        forgetContents();
     }
 
     @Override
@@ -159,6 +198,7 @@ public class XGLogicConnectorSettings extends AbstractConnectorSettings {
         for (XGSensor sensor : sensors) {
             sensor.readFromNBT(tag);
         }
+        forgetContents();
     }
 
     @Override
@@ -6,18 +6,13 @@ import mcjty.lib.varia.JSonTools;
 import mcjty.rftoolsbase.api.xnet.channels.Color;
 import mcjty.rftoolsbase.api.xnet.gui.IEditorGui;
 import mcjty.rftoolsbase.api.xnet.helper.BaseStringTranslators;
-import mekanism.api.chemical.gas.Gas;
-import mekanism.api.chemical.slurry.Slurry;
 import net.minecraft.item.ItemStack;
 import net.minecraft.nbt.CompoundNBT;
-import net.minecraft.tileentity.TileEntity;
-import terrails.xnetgases.gas.GasUtils;
-import terrails.xnetgases.slurry.SlurryUtils;
 
+import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.util.Arrays;
 import java.util.Map;
-import java.util.function.BiPredicate;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -28,6 +23,8 @@ public class XGSensor {
     public final String TAG_AMOUNT;
     public final String TAG_COLOR;
     public final String TAG_FILTER;
+    public final String TAG_RELEASE;
+    public final String TAG_HOLD;
 
     public enum SensorMode {
         OFF,
@@ -37,31 +34,58 @@ public class XGSensor {
 
     // Custom Operator because the original uses integer instead of long.
     // Creative gas tanks use Long#MAX_VALUE which results in an integer overflow.
+    // Each operator compares the primitives itself, so a check does not box its operands.
     public enum Operator {
-        EQUAL("=", Long::equals),
-        NOTEQUAL("!=", (i1, i2) -> !i1.equals(i2)),
-        LESS("<", (i1, i2) -> i1 < i2),
-        GREATER(">", (i1, i2) -> i1 > i2),
-        LESSOREQUAL("<=", (i1, i2) -> i1 <= i2),
-        GREATEROREQUAL(">=", (i1, i2) -> i1 >= i2);
+        EQUAL("=") {
+            @Override
+            public boolean match(long i1, long i2) {
+                return i1 == i2;
+            }
+        },
+        NOTEQUAL("!=") {
+            @Override
+            public boolean match(long i1, long i2) {
+                return i1 != i2;
+            }
+        },
+        LESS("<") {
+            @Override
+            public boolean match(long i1, long i2) {
+                return i1 < i2;
+            }
+        },
+        GREATER(">") {
+            @Override
+            public boolean match(long i1, long i2) {
+                return i1 > i2;
+            }
+        },
+        LESSOREQUAL("<=") {
+            @Override
+            public boolean match(long i1, long i2) {
+                return i1 <= i2;
+            }
+        },
+        GREATEROREQUAL(">=") {
+            @Override
+            public boolean match(long i1, long i2) {
+                return i1 >= i2;
+            }
+        };
 
         private final String code;
-        private final BiPredicate<Long, Long> matcher;
 
         private static final Map<String, Operator> OPERATOR_MAP = Arrays.stream(Operator.values()).collect(Collectors.toMap(op -> op.code, op -> op));
 
-        Operator(String code, BiPredicate<Long, Long> matcher) {
+        Operator(String code) {
             this.code = code;
-            this.matcher = matcher;
         }
 
         public static Operator byCode(String name) {
             return OPERATOR_MAP.get(name);
         }
 
-        public boolean match(long i1, long i2) {
-            return matcher.test(i1, i2);
-        }
+        public abstract boolean match(long i1, long i2);
 
         @Override
         public String toString() {
@@ -70,11 +94,22 @@ public class XGSensor {
     }
 
     private int amount = 0;
+    // Amount the output switches off at once it is on, none switches at the same amount
+    @Nullable private Integer release = null;
+    // Ticks the output keeps its state before it may change again
+    private int hold = 0;
 
     private SensorMode sensorMode = SensorMode.OFF;
     private Color outputColor = Color.OFF;
     private Operator operator = Operator.EQUAL;
     private ItemStack filter = ItemStack.EMPTY;
+    // Compiled from the settings above whenever they change
+    private SensorEvaluator evaluator = SensorEvaluator.OFF;
+
+    // State of the output, only kept while the game runs
+    private boolean output;
+    private boolean pending;
+    private long changedAt;
 
     public XGSensor(int index) {
         String temp = String.format("sensor%s_", index);
@@ -83,6 +118,8 @@ public class XGSensor {
         TAG_AMOUNT = temp + "amount";
         TAG_COLOR = temp + "color";
         TAG_FILTER = temp + "filter";
+        TAG_RELEASE = temp + "release";
+        TAG_HOLD = temp + "hold";
     }
 
     public Color getOutputColor() {
@@ -105,6 +142,12 @@ public class XGSensor {
         if ((TAG_FILTER).equals(tag)) {
             return sensorMode != SensorMode.OFF;
         }
+        if ((TAG_RELEASE).equals(tag)) {
+            return sensorMode != SensorMode.OFF;
+        }
+        if ((TAG_HOLD).equals(tag)) {
+            return sensorMode != SensorMode.OFF;
+        }
         return false;
     }
 
@@ -115,33 +158,35 @@ public class XGSensor {
                 .integer(TAG_AMOUNT, "Amount to compare with", amount, 46)
                 .colors(TAG_COLOR, "Output color", outputColor.getColor(), Color.COLORS)
                 .ghostSlot(TAG_FILTER, filter)
+                .nl()
+                .label("Off")
+                .integer(TAG_RELEASE, "Amount to switch off at once the output is on, empty for the amount to compare with", release, 46)
+                .label("Hold")
+                .integer(TAG_HOLD, "Minimum ticks the output keeps its state", hold, 36)
                 .nl();
     }
 
-    public boolean test(@Nullable TileEntity te, XGLogicConnectorSettings settings) {
-        switch (sensorMode) {
-            case GAS: return GasUtils.getGasHandlerFor(te, settings.getFacing())
-                    .map(handler -> GasUtils.getGasHandlerFor(filter, null).map(filterHandler -> {
-                        if (filterHandler.getTanks() <= 0) {
-                            return false;
-                        }
-
-                        Gas filterChemical = filterHandler.getChemicalInTank(0).getType();
-                        return operator.match(GasUtils.getGasCount(handler, settings.getFacing(), filterChemical), amount);
-                    }).orElseGet(() -> filter.isEmpty() && operator.match(GasUtils.getGasCount(handler, settings.getFacing()), amount)))
-                    .orElse(false);
-            case SLURRY: return SlurryUtils.getSlurryHandlerFor(te, settings.getFacing())
-                    .map(handler -> SlurryUtils.getSlurryHandlerFor(filter, null).map(filterHandler -> {
-                        if (filterHandler.getTanks() <= 0) {
-                            return false;
-                        }
-
-                        Slurry filterChemical = filterHandler.getChemicalInTank(0).getType();
-                        return operator.match(SlurryUtils.getSlurryCount(handler, settings.getFacing(), filterChemical), amount);
-                    }).orElseGet(() -> filter.isEmpty() && operator.match(SlurryUtils.getSlurryCount(handler, settings.getFacing()), amount)))
-                    .orElse(false);
+    public boolean test(@Nonnull SensedContents contents, long tick) {
+        boolean matched = evaluator.test(contents, output);
+        pending = matched != output;
+        if (pending && (hold <= 0 || tick - changedAt >= hold)) {
+            output = matched;
+            pending = false;
+            changedAt = tick;
         }
-        return false;
+        return output;
+    }
+
+    // False while the output waits for its hold time to switch
+    public boolean isSettled() {
+        return !pending;
+    }
+
+    private void compile() {
+        evaluator = SensorEvaluator.compile(sensorMode, operator, amount, release, filter);
+        output = false;
+        pending = false;
+        changedAt = -hold;
     }
 
     public void update(Map<String, Object> data) {
@@ -150,6 +195,9 @@ public class XGSensor {
         amount = this.getObjectFromMap(data, TAG_AMOUNT, 0, Integer.class::cast);
         outputColor = this.getObjectFromMap(data, TAG_COLOR, Color.OFF, (object) -> Color.colorByValue((Integer) object));
         filter = this.getObjectFromMap(data, TAG_FILTER, ItemStack.EMPTY, ItemStack.class::cast);
+        release = this.getObjectFromMap(data, TAG_RELEASE, null, Integer.class::cast);
+        hold = Math.max(0, this.getObjectFromMap(data, TAG_HOLD, 0, Integer.class::cast));
+        compile();
     }
 
     private <T> T getObjectFromMap(Map<String, Object> data, String key, T defaultValue, Function<Object, T> function) {
@@ -170,6 +218,9 @@ public class XGSensor {
         } else {
             this.filter = ItemStack.EMPTY;
         }
+        release = tag.contains(TAG_RELEASE) ? tag.getInt(TAG_RELEASE) : null;
+        hold = tag.getInt(TAG_HOLD);
+        compile();
     }
 
     public void writeToNBT(CompoundNBT tag) {
@@ -182,6 +233,10 @@ public class XGSensor {
             filter.write(itemTag);
             tag.put(TAG_FILTER, itemTag);
         }
+        if (release != null) {
+            tag.putInt(TAG_RELEASE, release);
+        }
+        tag.putInt(TAG_HOLD, hold);
     }
 
     public void writeToJson(JsonObject json) {
@@ -192,6 +247,10 @@ public class XGSensor {
         if (!filter.isEmpty()) {
             json.add("filter", JSonTools.itemStackToJson(filter));
         }
+        if (release != null) {
+            json.add(TAG_RELEASE, new JsonPrimitive(release));
+        }
+        json.add(TAG_HOLD, new JsonPrimitive(hold));
     }
 
     public void readFromJson(JsonObject json) {
@@ -202,5 +261,8 @@ public class XGSensor {
         if (json.has("filter")) {
             filter = JSonTools.jsonToItemStack(json.get("filter").getAsJsonObject());
         } else filter = ItemStack.EMPTY;
+        release = json.has(TAG_RELEASE) ? json.get(TAG_RELEASE).getAsInt() : null;
+        hold = json.has(TAG_HOLD) ? Math.max(0, json.get(TAG_HOLD).getAsInt()) : 0;
+        compile();
     }
 }